@@ -0,0 +1,313 @@
+package com.jpixel.color;
+
+/**
+ * A color lookup table (LUT) for color grading, gamma correction, brightness curves and tinting.
+ * <p>
+ * A LUT maps each channel of a color through a 256-entry table, and then optionally maps the RGB
+ * result through a 3D table (a cube of colors sampled with trilinear interpolation). LUTs are combined
+ * with {@link #then(ColorLUT)} into a single LUT, so any chain of corrections costs a single lookup per
+ * pixel. Applying a LUT needs no multiplications, except for the interpolation of 3D tables.
+ * <p>
+ * LUTs are immutable and can be shared between threads.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public final class ColorLUT {
+	/**
+	 * Channel tables with values in range [0, 255].
+	 */
+	private final int[] alpha, red, green, blue;
+
+	/**
+	 * Channel tables with the values shifted to their position in an ARGB color.
+	 */
+	private final int[] alphaShifted, redShifted, greenShifted, blueShifted;
+
+	/**
+	 * 3D table of RGB colors, or null. The color for grid point (r, g, b) is at
+	 * <code>r + g * size + b * size * size</code>.
+	 */
+	private final int[] cube;
+	private final int size;
+
+	/**
+	 * Grid offsets (scaled by the stride of the channel) and interpolation weights in range [0, 256] for each
+	 * channel value when sampling the 3D table.
+	 */
+	private final int[] cubeR, cubeG, cubeB, weight;
+
+	private ColorLUT(int[] alpha, int[] red, int[] green, int[] blue, int[] cube, int size) {
+		this.alpha = alpha;
+		this.red = red;
+		this.green = green;
+		this.blue = blue;
+		alphaShifted = shifted(alpha, 24);
+		redShifted = shifted(red, 16);
+		greenShifted = shifted(green, 8);
+		blueShifted = shifted(blue, 0);
+		this.cube = cube;
+		this.size = size;
+
+		if (cube == null) {
+			cubeR = cubeG = cubeB = weight = null;
+			return;
+		}
+
+		cubeR = new int[256];
+		cubeG = new int[256];
+		cubeB = new int[256];
+		weight = new int[256];
+		for (int v = 0; v < 256; v++) {
+			int pos = v * (size - 1) * 256 / 255;
+			int index = Math.min(pos >> 8, size - 2);
+			cubeR[v] = index;
+			cubeG[v] = index * size;
+			cubeB[v] = index * size * size;
+			weight[v] = pos - index * 256;
+		}
+	}
+
+	/**
+	 * Creates a LUT that does not change the colors.
+	 * 
+	 * @return The identity LUT.
+	 */
+	public static ColorLUT identity() {
+		int[] t = identityTable();
+		return new ColorLUT(t, t, t, t, null, 0);
+	}
+
+	/**
+	 * Creates a LUT from per-channel curves. The alpha channel is kept as is.
+	 * 
+	 * @param red
+	 *            256 new values (in range [0, 255]) for the red channel.
+	 * @param green
+	 *            256 new values for the green channel.
+	 * @param blue
+	 *            256 new values for the blue channel.
+	 * @return The LUT.
+	 */
+	public static ColorLUT fromCurves(int[] red, int[] green, int[] blue) {
+		return new ColorLUT(identityTable(), checkTable(red), checkTable(green), checkTable(blue), null, 0);
+	}
+
+	/**
+	 * Creates a LUT from per-channel curves.
+	 * 
+	 * @param alpha
+	 *            256 new values (in range [0, 255]) for the alpha channel.
+	 * @param red
+	 *            256 new values for the red channel.
+	 * @param green
+	 *            256 new values for the green channel.
+	 * @param blue
+	 *            256 new values for the blue channel.
+	 * @return The LUT.
+	 */
+	public static ColorLUT fromCurves(int[] alpha, int[] red, int[] green, int[] blue) {
+		return new ColorLUT(checkTable(alpha), checkTable(red), checkTable(green), checkTable(blue), null, 0);
+	}
+
+	/**
+	 * Creates a LUT from a 3D table of colors. The alpha channel is kept as is.
+	 * 
+	 * @param size
+	 *            Amount of grid points along each axis, at least 2.
+	 * @param cube
+	 *            <code>size * size * size</code> RGB colors. The color for
+	 *            grid point (r, g, b) is at
+	 *            <code>r + g * size + b * size * size</code>.
+	 * @return The LUT.
+	 */
+	public static ColorLUT fromCube(int size, int[] cube) {
+		if (size < 2 || size > 256) throw new IllegalArgumentException("Size must be in range [2, 256]");
+		if (cube.length != size * size * size) throw new IllegalArgumentException("Cube must have size^3 entries");
+		int[] copy = new int[cube.length];
+		for (int i = 0; i < cube.length; i++)
+			copy[i] = cube[i] & 0xFFFFFF;
+		int[] t = identityTable();
+		return new ColorLUT(t, t, t, t, copy, size);
+	}
+
+	/**
+	 * Creates a gamma correction LUT for the color channels.
+	 * 
+	 * @param gamma
+	 *            The gamma. Values above 1 brighten the image.
+	 * @return The LUT.
+	 */
+	public static ColorLUT gamma(double gamma) {
+		if (gamma <= 0) throw new IllegalArgumentException("Gamma must be positive");
+		int[] t = new int[256];
+		for (int i = 0; i < 256; i++)
+			t[i] = (int) Math.round(255.0 * Math.pow(i / 255.0, 1.0 / gamma));
+		return fromCurves(t, t, t);
+	}
+
+	/**
+	 * Creates a LUT that scales the color channels, like
+	 * {@link ColorMath#multiplyRGB(int, int)} but keeping the alpha channel.
+	 * 
+	 * @param multiplier
+	 *            A integer in range [0, 255].
+	 * @return The LUT.
+	 */
+	public static ColorLUT brightness(int multiplier) {
+		int[] t = new int[256];
+		for (int i = 0; i < 256; i++)
+			t[i] = (i * multiplier) >> 8;
+		return fromCurves(t, t, t);
+	}
+
+	/**
+	 * Creates a LUT that blends the color channels towards a color, like
+	 * {@link ColorMath#blend(int, int, int)} but keeping the alpha channel.
+	 * 
+	 * @param color
+	 *            Color to tint towards.
+	 * @param factor
+	 *            How much of the color to blend, in range [0, 256].
+	 * @return The LUT.
+	 */
+	public static ColorLUT tint(int color, int factor) {
+		int[] r = new int[256], g = new int[256], b = new int[256];
+		int f1 = 256 - factor;
+		for (int i = 0; i < 256; i++) {
+			r[i] = (i * f1 + ((color >> 16) & 0xFF) * factor) >> 8;
+			g[i] = (i * f1 + ((color >> 8) & 0xFF) * factor) >> 8;
+			b[i] = (i * f1 + (color & 0xFF) * factor) >> 8;
+		}
+		return fromCurves(r, g, b);
+	}
+
+	/**
+	 * Combines this LUT with another one. Applying the result is the same as
+	 * applying this LUT and then the given one; where either has a 3D table,
+	 * the result is exact at the grid points of the 3D table.
+	 * 
+	 * @param next
+	 *            LUT to apply after this one.
+	 * @return The combined LUT.
+	 */
+	public ColorLUT then(ColorLUT next) {
+		int[] a = compose(alpha, next.alpha);
+
+		if (cube == null && next.cube == null)
+			return new ColorLUT(a, compose(red, next.red), compose(green, next.green), compose(blue, next.blue), null, 0);
+
+		if (cube == null)
+			return new ColorLUT(a, compose(red, next.red), compose(green, next.green), compose(blue, next.blue), next.cube, next.size);
+
+		// Run every grid point of this table through the next LUT
+		int[] combined = new int[cube.length];
+		for (int i = 0; i < cube.length; i++)
+			combined[i] = next.apply(0xFF000000 | cube[i]) & 0xFFFFFF;
+		return new ColorLUT(a, red, green, blue, combined, size);
+	}
+
+	/**
+	 * Maps a single color through the LUT.
+	 * 
+	 * @param color
+	 *            ARGB color.
+	 * @return The mapped color.
+	 */
+	public int apply(int color) {
+		int c = alphaShifted[color >>> 24] | redShifted[(color >> 16) & 0xFF] | greenShifted[(color >> 8) & 0xFF] | blueShifted[color & 0xFF];
+		return cube == null ? c : sample(c);
+	}
+
+	/**
+	 * Maps a range of colors through the LUT in place.
+	 * 
+	 * @param pixels
+	 *            Array of ARGB colors.
+	 * @param offset
+	 *            Position of the first color.
+	 * @param length
+	 *            Amount of colors.
+	 */
+	public void apply(int[] pixels, int offset, int length) {
+		int[] a = alphaShifted, r = redShifted, g = greenShifted, b = blueShifted;
+		int end = offset + length;
+
+		if (cube == null) {
+			for (int i = offset; i < end; i++) {
+				int c = pixels[i];
+				pixels[i] = a[c >>> 24] | r[(c >> 16) & 0xFF] | g[(c >> 8) & 0xFF] | b[c & 0xFF];
+			}
+			return;
+		}
+
+		for (int i = offset; i < end; i++) {
+			int c = pixels[i];
+			pixels[i] = sample(a[c >>> 24] | r[(c >> 16) & 0xFF] | g[(c >> 8) & 0xFF] | b[c & 0xFF]);
+		}
+	}
+
+	/**
+	 * @return True, if the LUT has a 3D table.
+	 */
+	public boolean hasCube() {
+		return cube != null;
+	}
+
+	/**
+	 * Samples the 3D table with trilinear interpolation. The alpha channel is kept.
+	 */
+	private int sample(int c) {
+		int r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+		int p = cubeR[r] + cubeG[g] + cubeB[b];
+		int sg = size, sb = size * size;
+		int fr = weight[r], fg = weight[g], fb = weight[b];
+
+		int c00 = lerp(cube[p], cube[p + 1], fr);
+		int c10 = lerp(cube[p + sg], cube[p + sg + 1], fr);
+		int c01 = lerp(cube[p + sb], cube[p + sb + 1], fr);
+		int c11 = lerp(cube[p + sg + sb], cube[p + sg + sb + 1], fr);
+
+		return (c & 0xFF000000) | lerp(lerp(c00, c10, fg), lerp(c01, c11, fg), fb);
+	}
+
+	/**
+	 * Interpolates between two RGB colors, two channels at a time.
+	 */
+	private static int lerp(int c1, int c2, int f) {
+		int f1 = 256 - f;
+		return ((((c1 & 0xFF00FF) * f1 + (c2 & 0xFF00FF) * f) >>> 8) & 0xFF00FF) | ((((c1 & 0xFF00) * f1 + (c2 & 0xFF00) * f) >>> 8) & 0xFF00);
+	}
+
+	private static int[] compose(int[] first, int[] second) {
+		int[] t = new int[256];
+		for (int i = 0; i < 256; i++)
+			t[i] = second[first[i]];
+		return t;
+	}
+
+	private static int[] shifted(int[] table, int shift) {
+		int[] t = new int[256];
+		for (int i = 0; i < 256; i++)
+			t[i] = table[i] << shift;
+		return t;
+	}
+
+	private static int[] identityTable() {
+		int[] t = new int[256];
+		for (int i = 0; i < 256; i++)
+			t[i] = i;
+		return t;
+	}
+
+	private static int[] checkTable(int[] table) {
+		if (table.length != 256) throw new IllegalArgumentException("Table must have 256 entries");
+		int[] t = new int[256];
+		for (int i = 0; i < 256; i++) {
+			if (table[i] < 0 || table[i] > 255) throw new IllegalArgumentException("Table value out of range [0, 255]: " + table[i]);
+			t[i] = table[i];
+		}
+		return t;
+	}
+}
@@ -22,6 +22,32 @@ public final class ColorMath {
 		}
 	}
 
+	/**
+	 * Ways to combine a source pixel with a destination pixel.
+	 */
+	public static enum EBlendMode {
+		/**
+		 * The source replaces the destination.
+		 */
+		REPLACE,
+		/**
+		 * The source replaces the destination, except for the alpha colour 0x00000000.
+		 */
+		COLOR_KEY,
+		/**
+		 * The source is drawn over the destination according to its alpha.
+		 */
+		SOURCE_OVER,
+		/**
+		 * The source, scaled by its alpha, is added to the destination.
+		 */
+		ADDITIVE,
+		/**
+		 * The destination is multiplied by the source according to the alpha of the source.
+		 */
+		MULTIPLY
+	}
+
 	/**
 	 * Multiplies given RGB color by the multiplier.
 	 * 
@@ -53,6 +79,252 @@ public final class ColorMath {
 		return ((((color1 & 0xFF00FF) * f1 + (color2 & 0xFF00FF) * factor) & 0xFF00FF00) | (((color1 & 0x00FF00) * f1 + (color2 & 0x00FF00) * factor) & 0x00FF0000)) >>> 8;
 	}
 
+	/**
+	 * Multiplies a range of RGB colors by the multiplier. The results are
+	 * written to the same positions in the destination array, which may be the
+	 * source array itself.
+	 * 
+	 * @param src
+	 *            Array of RGB colors.
+	 * @param offset
+	 *            Position of the first color to multiply.
+	 * @param length
+	 *            Amount of colors to multiply.
+	 * @param multiplier
+	 *            A integer in range [0, 255].
+	 * @param dst
+	 *            Array to write the results to.
+	 * @see #multiplyRGB(int, int)
+	 */
+	public static void multiplyRGB(int[] src, int offset, int length, int multiplier, int[] dst) {
+		PixelKernels.multiplyRGB(src, offset, dst, offset, length, multiplier);
+	}
+
+	/**
+	 * Blends two arrays of colors together. The destination array may be one
+	 * of the source arrays.
+	 * 
+	 * @param color1
+	 *            First colors to blend.
+	 * @param color2
+	 *            Second colors to blend. Must be at least as long as color1.
+	 * @param dst
+	 *            Array to write the blended colors to. Must be at least as long
+	 *            as color1.
+	 * @param factor
+	 *            How much of the second colors to blend. 0 will return only
+	 *            color1, 256 will return only color2.
+	 * @see #blend(int, int, int)
+	 */
+	public static void blend(int[] color1, int[] color2, int[] dst, int factor) {
+		PixelKernels.blend(color1, 0, color2, 0, dst, 0, color1.length, factor);
+	}
+
+	/**
+	 * Blends a range of two arrays of colors together. The results are
+	 * written to the same positions in the destination array, which may be one
+	 * of the source arrays.
+	 * 
+	 * @param color1
+	 *            First colors to blend.
+	 * @param color2
+	 *            Second colors to blend.
+	 * @param dst
+	 *            Array to write the blended colors to.
+	 * @param offset
+	 *            Position of the first color to blend.
+	 * @param length
+	 *            Amount of colors to blend.
+	 * @param factor
+	 *            How much of the second colors to blend, in range [0, 256].
+	 * @see #blend(int, int, int)
+	 */
+	public static void blend(int[] color1, int[] color2, int[] dst, int offset, int length, int factor) {
+		PixelKernels.blend(color1, offset, color2, offset, dst, offset, length, factor);
+	}
+
+	/**
+	 * Gets a single color channel from a range of ARGB integers. The channel
+	 * values are written to the same positions in the destination array.
+	 * 
+	 * @param colARGB
+	 *            Array of ARGB integers.
+	 * @param offset
+	 *            Position of the first color.
+	 * @param length
+	 *            Amount of colors.
+	 * @param colorComponent
+	 *            Color channel to get.
+	 * @param dst
+	 *            Array to write the channel values to.
+	 * @see #getColor(int, EColorComponent)
+	 */
+	public static void getColor(int[] colARGB, int offset, int length, EColorComponent colorComponent, int[] dst) {
+		PixelKernels.extractChannel(colARGB, offset, dst, offset, length, colorComponent.shift);
+	}
+
+	/**
+	 * Combines ranges of color channels to ARGB values. The values are written
+	 * to the same positions in the destination array.
+	 * 
+	 * @param a
+	 *            Alpha values.
+	 * @param r
+	 *            Red values.
+	 * @param g
+	 *            Green values.
+	 * @param b
+	 *            Blue values.
+	 * @param offset
+	 *            Position of the first value.
+	 * @param length
+	 *            Amount of values.
+	 * @param dst
+	 *            Array to write the ARGB values to.
+	 * @see #toARGB(int, int, int, int)
+	 */
+	public static void toARGB(int[] a, int[] r, int[] g, int[] b, int offset, int length, int[] dst) {
+		PixelKernels.packARGB(a, r, g, b, offset, dst, offset, length);
+	}
+
+	/**
+	 * Multiplies the color channels of an ARGB color by its alpha.
+	 * 
+	 * @param color
+	 *            ARGB color with straight alpha.
+	 * @return The same color with premultiplied alpha.
+	 */
+	public static int premultiply(int color) {
+		int a = color >>> 24;
+		if (a == 0xFF) return color;
+		int f = a + (a >> 7);
+		int rb = (((color & 0xFF00FF) * f + 0x800080) >>> 8) & 0xFF00FF;
+		int g = (((color & 0xFF00) * f + 0x8000) >>> 8) & 0xFF00;
+
+		return (color & 0xFF000000) | rb | g;
+	}
+
+	/**
+	 * Draws a color with premultiplied alpha over another color.
+	 * 
+	 * @param dst
+	 *            Destination ARGB color.
+	 * @param src
+	 *            Source ARGB color with premultiplied alpha.
+	 * @return The blended color.
+	 */
+	public static int blendSourceOverPremultiplied(int dst, int src) {
+		int a = src >>> 24;
+		if (a == 0xFF) return src;
+		if (a == 0) return dst;
+		int inv = 256 - (a + (a >> 7));
+		int rb = (((dst & 0xFF00FF) * inv + 0x800080) >>> 8) & 0xFF00FF;
+		int ag = (((dst >>> 8) & 0xFF00FF) * inv + 0x800080) & 0xFF00FF00;
+
+		return src + (ag | rb);
+	}
+
+	/**
+	 * Draws a color with straight alpha over another color. The color channels
+	 * are exact for opaque destinations.
+	 * 
+	 * @param dst
+	 *            Destination ARGB color.
+	 * @param src
+	 *            Source ARGB color with straight alpha.
+	 * @return The blended color.
+	 */
+	public static int blendSourceOver(int dst, int src) {
+		int a = src >>> 24;
+		if (a == 0xFF) return src;
+		if (a == 0) return dst;
+
+		return blendSourceOverPremultiplied(dst, premultiply(src));
+	}
+
+	/**
+	 * Adds two colors together channel by channel (including alpha). Channels
+	 * that overflow are saturated to 255.
+	 * 
+	 * @param color1
+	 *            First ARGB color.
+	 * @param color2
+	 *            Second ARGB color.
+	 * @return Sum of the colors.
+	 */
+	public static int addSaturate(int color1, int color2) {
+		int sum = (color1 & 0x7F7F7F7F) + (color2 & 0x7F7F7F7F);
+		int carry = ((color1 & color2) | ((color1 | color2) & sum)) & 0x80808080;
+		sum ^= (color1 ^ color2) & 0x80808080;
+
+		return sum | ((carry >>> 7) * 0xFF);
+	}
+
+	/**
+	 * Adds a color with premultiplied alpha to another color.
+	 * 
+	 * @param dst
+	 *            Destination ARGB color.
+	 * @param src
+	 *            Source ARGB color with premultiplied alpha.
+	 * @return The blended color.
+	 */
+	public static int blendAdditivePremultiplied(int dst, int src) {
+		return addSaturate(dst, src);
+	}
+
+	/**
+	 * Adds a color with straight alpha, scaled by its alpha, to another color.
+	 * 
+	 * @param dst
+	 *            Destination ARGB color.
+	 * @param src
+	 *            Source ARGB color with straight alpha.
+	 * @return The blended color.
+	 */
+	public static int blendAdditive(int dst, int src) {
+		if (src >>> 24 == 0) return dst;
+
+		return addSaturate(dst, premultiply(src));
+	}
+
+	/**
+	 * Multiplies a color by a color with premultiplied alpha. Fully transparent
+	 * sources leave the destination unchanged, opaque sources multiply it.
+	 * 
+	 * @param dst
+	 *            Destination ARGB color.
+	 * @param src
+	 *            Source ARGB color with premultiplied alpha.
+	 * @return The blended color.
+	 */
+	public static int blendMultiplyPremultiplied(int dst, int src) {
+		int a = src >>> 24;
+		if (a == 0) return dst;
+
+		int sr = (src >> 16) & 0xFF, sg = (src >> 8) & 0xFF, sb = src & 0xFF;
+		int dr = (dst >> 16) & 0xFF, dg = (dst >> 8) & 0xFF, db = dst & 0xFF;
+		int product = ((dr * (sr + (sr >> 7)) + 0x80) >> 8) << 16 | ((dg * (sg + (sg >> 7)) + 0x80) >> 8) << 8 | ((db * (sb + (sb >> 7)) + 0x80) >> 8);
+
+		// src * dst + dst * (1 - alpha), the alpha channel is composited as in source-over
+		return blendSourceOverPremultiplied(dst, (a << 24) | product);
+	}
+
+	/**
+	 * Multiplies a color by a color with straight alpha.
+	 * 
+	 * @param dst
+	 *            Destination ARGB color.
+	 * @param src
+	 *            Source ARGB color with straight alpha.
+	 * @return The blended color.
+	 */
+	public static int blendMultiply(int dst, int src) {
+		if (src >>> 24 == 0) return dst;
+
+		return blendMultiplyPremultiplied(dst, premultiply(src));
+	}
+
 	/**
 	 * Combines all colors to ARGB value.
 	 * 
@@ -0,0 +1,77 @@
+package com.jpixel.image;
+
+import java.util.Arrays;
+
+/**
+ * Pixel storage backed by an <code>int</code> array on the Java heap.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class ArrayPixelStorage extends PixelStorage {
+    private final int[] pixels;
+
+    /**
+     * Initializes an empty storage.
+     *
+     * @param size Amount of pixels to store.
+     */
+    public ArrayPixelStorage(int size) {
+        this(new int[size]);
+    }
+
+    /**
+     * Initializes the storage around an existing array. The array is not copied.
+     *
+     * @param pixels Array to store the pixels in.
+     */
+    public ArrayPixelStorage(int[] pixels) {
+        this.pixels = pixels;
+    }
+
+    @Override
+    public int size() {
+        return pixels.length;
+    }
+
+    @Override
+    public int get(int index) {
+        return pixels[index];
+    }
+
+    @Override
+    public void set(int index, int color) {
+        pixels[index] = color;
+    }
+
+    @Override
+    public void fill(int index, int length, int color) {
+        Arrays.fill(pixels, index, index + length, color);
+    }
+
+    @Override
+    public void read(int index, int[] dst, int dstOffset, int length) {
+        System.arraycopy(pixels, index, dst, dstOffset, length);
+    }
+
+    @Override
+    public void write(int index, int[] src, int srcOffset, int length) {
+        System.arraycopy(src, srcOffset, pixels, index, length);
+    }
+
+    @Override
+    public void copy(PixelStorage src, int srcIndex, int index, int length) {
+        src.read(srcIndex, pixels, index, length);
+    }
+
+    @Override
+    public PixelStorage allocate(int size) {
+        return new ArrayPixelStorage(size);
+    }
+
+    @Override
+    public int[] array() {
+        return pixels;
+    }
+}
@@ -0,0 +1,244 @@
+package com.jpixel.image;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Packs many bitmaps into a single {@link TextureAtlas}. Keeping small sprites in one bitmap improves
+ * cache locality when they are drawn.
+ * <p>
+ * The bitmaps are placed using a skyline bottom-left packer: the bitmaps are sorted by height and each one
+ * is put at the lowest position where it fits.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class AtlasBuilder {
+    /**
+     * Default maximum width of the atlas bitmap.
+     */
+    public static final int DEFAULT_MAX_WIDTH = 4096;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final Set<String> names = new HashSet<String>();
+    private int maxWidth = DEFAULT_MAX_WIDTH;
+    private int padding = 0;
+
+    /**
+     * Adds a bitmap to pack.
+     *
+     * @param name   Name of the region in the atlas. Cannot contain tabs or line breaks.
+     * @param bitmap Bitmap to pack.
+     * @return This builder.
+     */
+    public AtlasBuilder add(String name, Bitmap bitmap) {
+        if (name.indexOf('\t') >= 0 || name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0)
+            throw new IllegalArgumentException("Region name cannot contain tabs or line breaks: " + name);
+        if (!names.add(name))
+            throw new IllegalArgumentException("Region already exists: " + name);
+        entries.add(new Entry(name, bitmap));
+        return this;
+    }
+
+    /**
+     * Adds all sprites of a sprite sheet to pack. The sprites are named <code>prefix + "_" + column + "_" + row</code>.
+     *
+     * @param prefix Prefix of the region names.
+     * @param sheet  Sprite sheet to pack.
+     * @return This builder.
+     */
+    public AtlasBuilder add(String prefix, SpriteSheet sheet) {
+        for (int r = 0; r < sheet.getRows(); r++)
+            for (int c = 0; c < sheet.getColumns(); c++)
+                add(prefix + "_" + c + "_" + r, sheet.getSprite(c, r));
+        return this;
+    }
+
+    /**
+     * Sets the maximum width of the atlas bitmap.
+     *
+     * @param maxWidth Maximum width in pixels.
+     * @return This builder.
+     */
+    public AtlasBuilder setMaxWidth(int maxWidth) {
+        if (maxWidth < 1) throw new IllegalArgumentException("Width must be positive");
+        this.maxWidth = maxWidth;
+        return this;
+    }
+
+    /**
+     * Sets the amount of empty pixels left between the packed bitmaps.
+     *
+     * @param padding Padding in pixels.
+     * @return This builder.
+     */
+    public AtlasBuilder setPadding(int padding) {
+        if (padding < 0) throw new IllegalArgumentException("Padding cannot be negative");
+        this.padding = padding;
+        return this;
+    }
+
+    /**
+     * Packs all added bitmaps into a new atlas. The regions keep the order in which they were added.
+     *
+     * @return The packed atlas.
+     */
+    public TextureAtlas build() {
+        List<Entry> sorted = new ArrayList<Entry>(entries);
+        Collections.sort(sorted, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry a, Entry b) {
+                if (a.bitmap.height != b.bitmap.height) return b.bitmap.height - a.bitmap.height;
+                return b.bitmap.width - a.bitmap.width;
+            }
+        });
+
+        int width = chooseWidth();
+        Skyline skyline = new Skyline(width);
+        for (Entry e : sorted)
+            skyline.place(e, e.bitmap.width + padding, e.bitmap.height + padding);
+
+        TextureAtlas atlas = new TextureAtlas(new Bitmap(width, Math.max(1, skyline.height)));
+        for (Entry e : entries) {
+            atlas.bitmap.blit(e.bitmap, e.x, e.y);
+            atlas.addRegion(e.name, e.x, e.y, e.bitmap.width, e.bitmap.height);
+        }
+
+        return atlas;
+    }
+
+    /**
+     * Picks the narrowest power-of-two width that would fit the bitmaps in a roughly square atlas.
+     */
+    private int chooseWidth() {
+        long area = 0;
+        int widest = 1;
+        for (Entry e : entries) {
+            area += (long) (e.bitmap.width + padding) * (e.bitmap.height + padding);
+            widest = Math.max(widest, e.bitmap.width + padding);
+        }
+        if (widest > maxWidth)
+            throw new IllegalStateException("Bitmap wider than the maximum atlas width " + maxWidth);
+
+        int width = 1;
+        while (width < maxWidth && ((long) width * width < area || width < widest))
+            width <<= 1;
+        return Math.min(width, maxWidth);
+    }
+
+    private static final class Entry {
+        final String name;
+        final Bitmap bitmap;
+        int x, y;
+
+        Entry(String name, Bitmap bitmap) {
+            this.name = name;
+            this.bitmap = bitmap;
+        }
+    }
+
+    /**
+     * The top outline of the packed area, stored as horizontal segments (x, y, width) from left to right.
+     */
+    private static final class Skyline {
+        final int width;
+        int[] xs = new int[16], ys = new int[16], ws = new int[16];
+        int count = 1, height = 0;
+
+        Skyline(int width) {
+            this.width = width;
+            ws[0] = width;
+        }
+
+        void place(Entry e, int w, int h) {
+            int bestIndex = -1, bestY = Integer.MAX_VALUE, bestX = 0;
+
+            for (int i = 0; i < count; i++) {
+                int x = xs[i];
+                if (x + w > width) break;
+
+                // The lowest Y at which the rectangle rests on the segments it spans
+                int y = 0, covered = 0;
+                for (int j = i; covered < w; j++) {
+                    y = Math.max(y, ys[j]);
+                    covered += ws[j];
+                }
+
+                if (y < bestY) {
+                    bestY = y;
+                    bestX = x;
+                    bestIndex = i;
+                }
+            }
+
+            e.x = bestX;
+            e.y = bestY;
+            height = Math.max(height, bestY + h);
+            raise(bestIndex, bestX, bestY + h, w);
+        }
+
+        /**
+         * Replaces the outline under [x, x + w) with a single segment at height y.
+         */
+        private void raise(int index, int x, int y, int w) {
+            int end = x + w;
+            int j = index;
+            while (j < count && xs[j] + ws[j] <= end) j++;
+
+            // Segment j is only partially covered, so keep its right part
+            if (j < count && xs[j] < end) {
+                ws[j] = xs[j] + ws[j] - end;
+                xs[j] = end;
+            }
+
+            int removed = j - index;
+            if (removed == 0) {
+                ensureCapacity(count + 1);
+                shift(index, index + 1, count - index);
+                count++;
+            } else if (removed > 1) {
+                shift(j, index + 1, count - j);
+                count -= removed - 1;
+            }
+
+            xs[index] = x;
+            ys[index] = y;
+            ws[index] = w;
+
+            // Merge with neighbours at the same height
+            if (index + 1 < count && ys[index + 1] == y) {
+                ws[index] += ws[index + 1];
+                shift(index + 2, index + 1, count - index - 2);
+                count--;
+            }
+            if (index > 0 && ys[index - 1] == y) {
+                ws[index - 1] += ws[index];
+                shift(index + 1, index, count - index - 1);
+                count--;
+            }
+        }
+
+        private void shift(int from, int to, int length) {
+            System.arraycopy(xs, from, xs, to, length);
+            System.arraycopy(ys, from, ys, to, length);
+            System.arraycopy(ws, from, ws, to, length);
+        }
+
+        private void ensureCapacity(int size) {
+            if (size <= xs.length) return;
+            int n = xs.length * 2;
+            int[] nx = new int[n], ny = new int[n], nw = new int[n];
+            System.arraycopy(xs, 0, nx, 0, count);
+            System.arraycopy(ys, 0, ny, 0, count);
+            System.arraycopy(ws, 0, nw, 0, count);
+            xs = nx;
+            ys = ny;
+            ws = nw;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.jpixel.image;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs bitmap operations in parallel by splitting the destination into horizontal bands of rows.
+ * Each band is processed on a {@link ForkJoinPool}. Operations smaller than the threshold are run
+ * sequentially on the calling thread.
+ * <p>
+ * Attach an executor to a bitmap with {@link Bitmap#setExecutor(BandedExecutor)} or pass it to the
+ * static operations of {@link Bitmap} to enable parallel processing.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class BandedExecutor {
+    /**
+     * Default amount of pixels below which operations are run sequentially.
+     */
+    public static final int DEFAULT_THRESHOLD = 256 * 256;
+
+    /**
+     * A piece of work that processes a range of rows. Bands never overlap, so implementations may
+     * freely write to their own rows.
+     */
+    public interface Band {
+        /**
+         * Processes the given rows.
+         *
+         * @param y0 First row to process (inclusive).
+         * @param y1 Last row to process (exclusive).
+         */
+        void process(int y0, int y1);
+    }
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Initializes the executor on the common {@link ForkJoinPool} with the default threshold.
+     */
+    public BandedExecutor() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Initializes the executor.
+     *
+     * @param pool      Pool to run the bands on.
+     * @param threshold Amount of pixels below which operations are run sequentially.
+     */
+    public BandedExecutor(ForkJoinPool pool, int threshold) {
+        if (pool == null) throw new IllegalArgumentException("Pool cannot be null");
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Processes an area of the given size, splitting it into bands of rows if it is large enough.
+     * Returns once all bands have been processed.
+     *
+     * @param width  Width of the processed area.
+     * @param height Height of the processed area (amount of rows).
+     * @param band   Work to run on each band.
+     */
+    public void execute(int width, int height, Band band) {
+        int parallelism = pool.getParallelism();
+        if (height < 2 || parallelism < 2 || (long) width * height < threshold) {
+            band.process(0, height);
+            return;
+        }
+
+        // A few bands per worker so that uneven bands are balanced by work stealing
+        int bandRows = Math.max(1, (height + parallelism * 4 - 1) / (parallelism * 4));
+        pool.invoke(new BandTask(band, 0, height, bandRows));
+    }
+
+    /**
+     * Gets the pool on which bands are processed.
+     *
+     * @return The pool on which bands are processed.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Gets the amount of pixels below which operations are run sequentially.
+     *
+     * @return The sequential threshold in pixels.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    private static final class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Band band;
+        private final int y0, y1, bandRows;
+
+        BandTask(Band band, int y0, int y1, int bandRows) {
+            this.band = band;
+            this.y0 = y0;
+            this.y1 = y1;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (y1 - y0 <= bandRows) {
+                band.process(y0, y1);
+                return;
+            }
+
+            int mid = (y0 + y1) >>> 1;
+            invokeAll(new BandTask(band, y0, mid, bandRows), new BandTask(band, mid, y1, bandRows));
+        }
+    }
+}
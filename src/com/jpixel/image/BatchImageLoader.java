@@ -0,0 +1,263 @@
+package com.jpixel.image;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Loads many images from the resource folder in parallel on a bounded pool of threads.
+ * <p>
+ * Every request has a priority: waiting requests with a higher priority are decoded first, and requests with the
+ * same priority in the order they were made. This way, for example, the images of the first screen can be loaded
+ * before the rest. Each request returns a {@link CompletableFuture}; {@link #loadAll(String[], int)} returns a
+ * single future for a batch. Cancelling a future that has not started skips decoding its image.
+ * <p>
+ * The progress of all requests can be followed with {@link #getCompleted()} and {@link #getRequested()}, or by
+ * setting a {@link LoadProgressListener}.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class BatchImageLoader {
+    /**
+     * Receives the progress of the loader.
+     */
+    public interface LoadProgressListener {
+        /**
+         * Called on a loader thread after a request has completed, successfully or not, or on the requesting thread
+         * if the loader was already shut down. Exceptions thrown by the listener are passed to the uncaught exception
+         * handler of the thread and do not stop the loader.
+         *
+         * @param path      Path of the completed request.
+         * @param completed Amount of completed requests.
+         * @param requested Amount of requests made.
+         */
+        void loaded(String path, int completed, int requested);
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger requested = new AtomicInteger(), completed = new AtomicInteger(), failed = new AtomicInteger();
+    private volatile LoadProgressListener listener;
+
+    /**
+     * Initializes the loader with a thread for each available processor.
+     */
+    public BatchImageLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes the loader.
+     *
+     * @param threads Maximum amount of images to decode at once.
+     */
+    public BatchImageLoader(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is required");
+
+        final AtomicInteger count = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "jpixel-loader-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Requests an image to be loaded with the default priority 0.
+     *
+     * @param path Path to the image in the resource folder.
+     * @return A future of the bitmap of the image.
+     */
+    public CompletableFuture<Bitmap> load(String path) {
+        return load(path, 0);
+    }
+
+    /**
+     * Requests an image to be loaded.
+     *
+     * @param path     Path to the image in the resource folder.
+     * @param priority Priority of the request. Higher priorities are loaded first.
+     * @return A future of the bitmap of the image. Completes exceptionally if the image cannot be loaded or the
+     * loader has been shut down.
+     */
+    public CompletableFuture<Bitmap> load(String path, int priority) {
+        CompletableFuture<Bitmap> future = new CompletableFuture<Bitmap>();
+        LoadTask task = new LoadTask(path, priority, sequence.getAndIncrement(), future);
+        requested.incrementAndGet();
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.fail(e);
+        }
+        return future;
+    }
+
+    /**
+     * Requests a {@link SpriteSheet} to be loaded.
+     *
+     * @param path         Path to the image in the resource folder.
+     * @param spriteWidth  Width of a single sprite.
+     * @param spriteHeight Height of a single sprite.
+     * @param priority     Priority of the request. Higher priorities are loaded first.
+     * @return A future of the sprite sheet.
+     */
+    public CompletableFuture<SpriteSheet> loadSpriteSheet(String path, final int spriteWidth, final int spriteHeight, int priority) {
+        return load(path, priority).thenApply(new Function<Bitmap, SpriteSheet>() {
+            @Override
+            public SpriteSheet apply(Bitmap b) {
+                return new SpriteSheet(b, spriteWidth, spriteHeight);
+            }
+        });
+    }
+
+    /**
+     * Requests a batch of images to be loaded.
+     *
+     * @param paths    Paths to the images in the resource folder.
+     * @param priority Priority of the requests. Higher priorities are loaded first.
+     * @return A future of the bitmaps, in the same order as the paths. Completes exceptionally if any of the images
+     * cannot be loaded.
+     */
+    public CompletableFuture<Bitmap[]> loadAll(String[] paths, int priority) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final CompletableFuture<Bitmap>[] futures = new CompletableFuture[paths.length];
+        for (int i = 0; i < paths.length; i++)
+            futures[i] = load(paths[i], priority);
+
+        return CompletableFuture.allOf(futures).thenApply(new Function<Void, Bitmap[]>() {
+            @Override
+            public Bitmap[] apply(Void v) {
+                Bitmap[] result = new Bitmap[futures.length];
+                for (int i = 0; i < futures.length; i++)
+                    result[i] = futures[i].join();
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Sets the listener that receives the progress of the loader.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setProgressListener(LoadProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the amount of requests made.
+     *
+     * @return Amount of requests.
+     */
+    public int getRequested() {
+        return requested.get();
+    }
+
+    /**
+     * Gets the amount of requests that have completed, successfully or not.
+     *
+     * @return Amount of completed requests.
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Gets the amount of requests that have failed.
+     *
+     * @return Amount of failed requests.
+     */
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Gets the fraction of the requests that have completed.
+     *
+     * @return Progress in range [0, 1]. 1 if no requests have been made.
+     */
+    public float getProgress() {
+        int r = requested.get();
+        return r == 0 ? 1f : (float) completed.get() / r;
+    }
+
+    /**
+     * Stops the loader. Images that were already requested are still loaded; later requests fail.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private final class LoadTask implements Runnable, Comparable<LoadTask> {
+        private final String path;
+        private final int priority;
+        private final long order;
+        private final CompletableFuture<Bitmap> future;
+
+        LoadTask(String path, int priority, long order, CompletableFuture<Bitmap> future) {
+            this.path = path;
+            this.priority = priority;
+            this.order = order;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!future.isDone()) future.complete(ImageLoader.loadImageAsResource(path));
+            } catch (Throwable e) {
+                fail(e);
+                return;
+            }
+            complete();
+        }
+
+        /**
+         * Completes the request with an error.
+         */
+        void fail(Throwable e) {
+            failed.incrementAndGet();
+            future.completeExceptionally(e);
+            complete();
+        }
+
+        private void complete() {
+            int done = completed.incrementAndGet();
+            LoadProgressListener l = listener;
+            if (l == null) return;
+
+            try {
+                l.loaded(path, done, requested.get());
+            } catch (RuntimeException e) {
+                Thread t = Thread.currentThread();
+                t.getUncaughtExceptionHandler().uncaughtException(t, e);
+            }
+        }
+
+        @Override
+        public int compareTo(LoadTask o) {
+            if (priority != o.priority) return priority > o.priority ? -1 : 1;
+            return order < o.order ? -1 : (order > o.order ? 1 : 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[BATCHLOADER] ");
+        sb.append("Threads: ").append(pool.getMaximumPoolSize()).append(" Completed: ").append(completed.get()).append("/").append(requested.get());
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
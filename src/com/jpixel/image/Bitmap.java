@@ -1,7 +1,14 @@
 package com.jpixel.image;
 
+import com.jpixel.color.ColorLUT;
+import com.jpixel.color.ColorMath;
+import com.jpixel.color.ColorMath.EBlendMode;
+import com.jpixel.color.PixelKernels;
+import com.jpixel.image.PolygonFiller.EFillRule;
 import com.jpixel.math.MathUtils;
 
+import java.util.Arrays;
+
 /**
  * A container for 2D pixel data. The class includes some useful functions to
  * write color/image data.
@@ -11,13 +18,68 @@ import com.jpixel.math.MathUtils;
  * @since 26.10.2013
  */
 public class Bitmap {
+    /**
+     * Ways to sample the pixels when resizing a bitmap.
+     */
+    public static enum EResizeMode {
+        /**
+         * Each pixel takes the color of the nearest source pixel. Fastest, but aliases.
+         */
+        NEAREST,
+        /**
+         * Each pixel is interpolated from the four nearest source pixels.
+         */
+        BILINEAR,
+        /**
+         * Each pixel is the average of all source pixels it covers. Best quality for downscaling.
+         */
+        AREA
+    }
+
+    /**
+     * Polygon filler of each thread, so that the edge tables are reused between calls.
+     */
+    private static final ThreadLocal<PolygonFiller> POLYGON_FILLER = new ThreadLocal<PolygonFiller>() {
+        @Override
+        protected PolygonFiller initialValue() {
+            return new PolygonFiller();
+        }
+    };
+
     protected int width, height;
 
     /**
-     * Raw pixel data.
+     * Index of the top-left pixel in the pixel data and the distance between the starts of two rows.
+     * For bitmaps that own their pixels, the offset is 0 and the stride equals the width.
+     */
+    protected int offset, stride;
+
+    /**
+     * Raw pixel data. Null if the pixels are not stored in a Java array (see {@link #getStorage()}).
+     * The pixel at (x, y) is at index <code>offset + x + y * stride</code>.
      */
     public int[] pixels;
 
+    /**
+     * Storage that holds the pixel data.
+     */
+    protected PixelStorage storage;
+
+    /**
+     * Executor used to split large operations into bands, or null to run them sequentially.
+     */
+    protected BandedExecutor executor;
+
+    /**
+     * Tracker that records the drawn areas, or null if the areas are not tracked.
+     */
+    protected DamageTracker damage;
+
+    /**
+     * If true, the color channels of the pixels are premultiplied by their alpha.
+     */
+    protected boolean premultiplied;
+
     /**
      * Initializes an empty bitmap.
      *
@@ -25,9 +87,50 @@ public class Bitmap {
      * @param height Height of the bitmap.
      */
     public Bitmap(int width, int height) {
+        this(width, height, new ArrayPixelStorage(width * height));
+    }
+
+    /**
+     * Initializes a bitmap on top of the given pixel storage.
+     *
+     * @param width   Width of the bitmap.
+     * @param height  Height of the bitmap.
+     * @param storage Storage that holds the pixels. Must hold at least <code>width * height</code> pixels.
+     */
+    public Bitmap(int width, int height, PixelStorage storage) {
+        this(width, height, storage, 0, width);
+    }
+
+    /**
+     * Initializes a bitmap that covers a rectangular area of the given pixel storage.
+     *
+     * @param width   Width of the bitmap.
+     * @param height  Height of the bitmap.
+     * @param storage Storage that holds the pixels.
+     * @param offset  Index of the top-left pixel in the storage.
+     * @param stride  Distance between the starts of two rows in the storage.
+     */
+    protected Bitmap(int width, int height, PixelStorage storage, int offset, int stride) {
+        if (width < 0 || height < 0 || offset < 0 || stride < width
+                || (height > 0 && (long) offset + (long) (height - 1) * stride + width > storage.size()))
+            throw new IllegalArgumentException("Storage too small for a " + width + "x" + height + " bitmap");
         this.width = width;
         this.height = height;
-        pixels = new int[width * height];
+        this.storage = storage;
+        this.offset = offset;
+        this.stride = stride;
+        pixels = storage.array();
+    }
+
+    /**
+     * Creates an empty bitmap whose pixels are stored off the Java heap in a direct buffer.
+     *
+     * @param width  Width of the bitmap.
+     * @param height Height of the bitmap.
+     * @return A new bitmap backed by {@link DirectPixelStorage}.
+     */
+    public static Bitmap createDirect(int width, int height) {
+        return new Bitmap(width, height, new DirectPixelStorage(width * height));
     }
 
     /**
@@ -36,91 +139,193 @@ public class Bitmap {
      * @param color Color to fill with.
      */
     public void clear(int color) {
-        for (int i = 0; i < pixels.length; i++)
-            pixels[i] = color;
+        markDamaged(0, 0, width, height);
+
+        if (executor == null) {
+            fillRows(color, 0, 0, width, height);
+            return;
+        }
+
+        fillSpans(color, 0, 0, width, height);
     }
 
     /**
-     * Fills an area of the bitmap with a single color.
+     * Fills an area of the bitmap with a single color. The area is clipped to the bounds of the bitmap.
      *
      * @param color Color to fill with.
-     * @param x     Position where to begin filling (X coordinate).
-     * @param y     Position where to begin filling (Y coordinate).
+     * @param x     Position where to begin filling (X coordinate). Can be negative.
+     * @param y     Position where to begin filling (Y coordinate). Can be negative.
      * @param w     Width of the area to fill.
      * @param h     Height of the area to fill.
      */
     public void fill(int color, int x, int y, int w, int h) {
-        int x0 = x < 0 ? 0 : x;
-        int x1 = x0 + w;
-        int y0 = y < 0 ? 0 : y;
-        int y1 = y0 + h;
-        if (y1 >= height) y1 = height - 1;
-        if (x1 >= width) x1 = width - 1;
+        if (x < 0) {
+            w += x;
+            x = 0;
+        }
+        if (y < 0) {
+            h += y;
+            y = 0;
+        }
+        if (w > width - x) w = width - x;
+        if (h > height - y) h = height - y;
+        if (w <= 0 || h <= 0) return;
+        markDamaged(x, y, w, h);
 
-        for (int yp = y0; yp <= y1; yp++)
-            for (int xp = x0; xp <= x1; xp++)
-                pixels[xp + yp * width] = color;
+        fillSpans(color, x, y, w, h);
     }
 
     /**
-     * Performs a Block Image Transfer (blit) operation. Copies all of the pixel data from given bitmap onto this one.
+     * Applies an operation to every pixel of the bitmap.
      *
-     * @param b      Bitmap to copy.
-     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
-     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param op Operation to apply.
      */
-    public void blit(Bitmap b, int xStart, int yStart) {
-        int x0 = xStart < 0 ? 0 : xStart;
-        int x1 = xStart + b.width;
-        int y0 = yStart < 0 ? 0 : yStart;
-        int y1 = yStart + b.height;
+    public void apply(PixelOperation op) {
+        apply(op, 0, 0, width, height);
+    }
 
-        if (y1 > height) y1 = height;
-        if (x1 > width) x1 = width;
+    /**
+     * Applies an operation to every pixel in an area of the bitmap. The area is clipped to the bounds of the bitmap.
+     * The rows are split into bands if an executor is set.
+     *
+     * @param op Operation to apply.
+     * @param x  Position where the area begins (X coordinate). Can be negative.
+     * @param y  Position where the area begins (Y coordinate). Can be negative.
+     * @param w  Width of the area.
+     * @param h  Height of the area.
+     */
+    public void apply(final PixelOperation op, int x, int y, int w, int h) {
+        if (x < 0) {
+            w += x;
+            x = 0;
+        }
+        if (y < 0) {
+            h += y;
+            y = 0;
+        }
+        if (w > width - x) w = width - x;
+        if (h > height - y) h = height - y;
+        if (w <= 0 || h <= 0) return;
+        markDamaged(x, y, w, h);
+
+        if (executor == null) {
+            applyRows(op, x, y, w, h);
+            return;
+        }
+
+        final int fx = x, fy = y, fw = w;
+        executor.execute(w, h, new BandedExecutor.Band() {
+            @Override
+            public void process(int y0, int y1) {
+                applyRows(op, fx, fy + y0, fw, y1 - y0);
+            }
+        });
+    }
 
-        for (int yp = y0; yp < y1; yp++) {
-            int tp = yp * width;
-            int bp = (yp - yStart) * b.width - xStart;
+    private void applyRows(PixelOperation op, int x, int y, int w, int h) {
+        int tp = offset + x + y * stride;
 
-            for (int xp = x0; xp < x1; xp++) {
-                pixels[xp + tp] = b.pixels[xp + bp];
+        if (pixels != null) {
+            if (w == stride) {
+                op.apply(pixels, tp, w * h);
+                return;
             }
+            for (int end = tp + h * stride; tp < end; tp += stride)
+                op.apply(pixels, tp, w);
+            return;
+        }
+
+        int[] row = new int[w];
+        for (int end = tp + h * stride; tp < end; tp += stride) {
+            storage.read(tp, row, 0, w);
+            op.apply(row, 0, w);
+            storage.write(tp, row, 0, w);
         }
     }
 
+    /**
+     * Maps every pixel through a color lookup table.
+     *
+     * @param lut Lookup table to apply.
+     */
+    public void apply(ColorLUT lut) {
+        apply(lut, 0, 0, width, height);
+    }
+
+    /**
+     * Maps every pixel in an area of the bitmap through a color lookup table. The area is clipped to the bounds of
+     * the bitmap. The rows are split into bands if an executor is set.
+     *
+     * @param lut Lookup table to apply.
+     * @param x   Position where the area begins (X coordinate). Can be negative.
+     * @param y   Position where the area begins (Y coordinate). Can be negative.
+     * @param w   Width of the area.
+     * @param h   Height of the area.
+     */
+    public void apply(final ColorLUT lut, int x, int y, int w, int h) {
+        apply(new PixelOperation() {
+            @Override
+            public void apply(int[] pixels, int offset, int length) {
+                lut.apply(pixels, offset, length);
+            }
+        }, x, y, w, h);
+    }
+
+    /**
+     * Multiplies the RGB channels of every pixel, e.g. to darken the bitmap. The alpha channel is cleared, as with
+     * {@link ColorMath#multiplyRGB(int, int)}.
+     *
+     * @param multiplier A integer in range [0, 255].
+     */
+    public void multiplyRGB(final int multiplier) {
+        apply(new PixelOperation() {
+            @Override
+            public void apply(int[] pixels, int offset, int length) {
+                PixelKernels.multiplyRGB(pixels, offset, pixels, offset, length, multiplier);
+            }
+        });
+    }
+
+    /**
+     * Blends every pixel with a single color, e.g. to tint or fade the bitmap. The alpha channel is cleared, as with
+     * {@link ColorMath#blend(int, int, int)}.
+     *
+     * @param color  Color to blend with.
+     * @param factor How much of the color to blend. 0 keeps the pixels as they are, 256 replaces them with the color.
+     */
+    public void blendColor(final int color, final int factor) {
+        apply(new PixelOperation() {
+            @Override
+            public void apply(int[] pixels, int offset, int length) {
+                PixelKernels.blend(pixels, offset, color, pixels, offset, length, factor);
+            }
+        });
+    }
+
+    /**
+     * Performs a Block Image Transfer (blit) operation. Copies all of the pixel data from given bitmap onto this one.
+     *
+     * @param b      Bitmap to copy.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
+     */
+    public void blit(Bitmap b, int xStart, int yStart) {
+        blitRegion(b, xStart, yStart, 0, 0, b.width, b.height, EBlendMode.REPLACE);
+    }
+
     /**
      * Performs a Block Image Transfer (blit) operation. Copies part of some part of pixel data from the given bitmap onto this one.
      *
      * @param b      Bitmap to copy.
-     * @param xStart X coordinate position on this bitmap to which begin copying.
-     * @param yStart Y coordinate position on this bitmap to which begin copying.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
      * @param xb     X coordinate position on the given bitmap from which begin copying.
      * @param yb     Y coordinate position on the given bitmap from which begin copying.
      * @param w      Width of the area to copy.
      * @param h      Height of the area to copy.
      */
     public void blit(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
-        if (w < 0 || h < 0) return;
-        if (w > b.width - xb) w = b.width - xb;
-        if (h > b.height - yb) h = b.height - yb;
-        if (!(xb >= 0 && yb >= 0 && xb <= w && yb <= h)) return;
-
-        int x0 = xStart < 0 ? 0 : xStart;
-        int x1 = xStart + w;
-        int y0 = yStart < 0 ? 0 : yStart;
-        int y1 = yStart + h;
-
-        if (y1 > height) y1 = height;
-        if (x1 > width) x1 = width;
-
-        for (int yp = y0; yp < y1; yp++) {
-            int tp = yp * width;
-            int sp = (yp - yStart + yb) * b.width - (xStart - xb);
-
-            for (int xp = x0; xp < x1; xp++) {
-                pixels[tp + xp] = b.pixels[xp + sp];
-            }
-        }
+        blitRegion(b, xStart, yStart, xb, yb, w, h, EBlendMode.REPLACE);
     }
 
     /**
@@ -131,164 +336,1581 @@ public class Bitmap {
      * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
      */
     public void blitAlpha(Bitmap b, int xStart, int yStart) {
-        int x0 = xStart < 0 ? 0 : xStart;
-        int x1 = xStart + b.width;
-        int y0 = yStart < 0 ? 0 : yStart;
-        int y1 = yStart + b.height;
+        blitRegion(b, xStart, yStart, 0, 0, b.width, b.height, EBlendMode.COLOR_KEY);
+    }
 
-        if (y1 > height) y1 = height;
-        if (x1 > width) x1 = width;
+    /**
+     * Performs a Block Image Transfer (blit) operation. Copies part of some part of pixel data (except for the alpha colour 0x00000000) from the given bitmap onto this one.
+     *
+     * @param b      Bitmap to copy.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param xb     X coordinate position on the given bitmap from which begin copying.
+     * @param yb     Y coordinate position on the given bitmap from which begin copying.
+     * @param w      Width of the area to copy.
+     * @param h      Height of the area to copy.
+     */
+    public void blitAlpha(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
+        blitRegion(b, xStart, yStart, xb, yb, w, h, EBlendMode.COLOR_KEY);
+    }
 
-        int col;
+    /**
+     * Performs a Block Image Transfer (blit) operation. Copies all of the pixels of the given indexed bitmap onto
+     * this one, looking up their colors in its palette.
+     *
+     * @param b      Indexed bitmap to copy.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
+     */
+    public void blit(IndexedBitmap b, int xStart, int yStart) {
+        blitIndexed(b, xStart, yStart, 0, 0, b.width, b.height, false);
+    }
 
-        for (int yp = y0; yp < y1; yp++) {
-            int tp = yp * width;
-            int bp = (yp - yStart) * b.width - xStart;
+    /**
+     * Performs a Block Image Transfer (blit) operation. Copies part of the pixels of the given indexed bitmap onto
+     * this one, looking up their colors in its palette.
+     *
+     * @param b      Indexed bitmap to copy.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param xb     X coordinate position on the given bitmap from which begin copying.
+     * @param yb     Y coordinate position on the given bitmap from which begin copying.
+     * @param w      Width of the area to copy.
+     * @param h      Height of the area to copy.
+     */
+    public void blit(IndexedBitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
+        blitIndexed(b, xStart, yStart, xb, yb, w, h, false);
+    }
 
-            for (int xp = x0; xp < x1; xp++) {
-                col = b.pixels[xp + bp];
-                if (col != 0)
-                    pixels[xp + tp] = col;
-            }
-        }
+    /**
+     * Performs a Block Image Transfer (blit) operation. Copies all of the pixels of the given indexed bitmap onto
+     * this one, except for those whose palette color is the alpha colour 0x00000000.
+     *
+     * @param b      Indexed bitmap to copy.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
+     */
+    public void blitAlpha(IndexedBitmap b, int xStart, int yStart) {
+        blitIndexed(b, xStart, yStart, 0, 0, b.width, b.height, true);
     }
 
     /**
-     * Performs a Block Image Transfer (blit) operation. Copies part of some part of pixel data (except for the alpha colour 0x00000000) from the given bitmap onto this one.
+     * Performs a Block Image Transfer (blit) operation. Copies part of the pixels of the given indexed bitmap onto
+     * this one, except for those whose palette color is the alpha colour 0x00000000.
      *
-     * @param b      Bitmap to copy.
-     * @param xStart X coordinate position on this bitmap to which begin copying.
-     * @param yStart Y coordinate position on this bitmap to which begin copying.
+     * @param b      Indexed bitmap to copy.
+     * @param xStart X coordinate position on this bitmap to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin copying. Can be negative.
      * @param xb     X coordinate position on the given bitmap from which begin copying.
      * @param yb     Y coordinate position on the given bitmap from which begin copying.
      * @param w      Width of the area to copy.
      * @param h      Height of the area to copy.
      */
-    public void blitAlpha(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
-        if (w < 0 || h < 0) return;
+    public void blitAlpha(IndexedBitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
+        blitIndexed(b, xStart, yStart, xb, yb, w, h, true);
+    }
+
+    private void blitIndexed(IndexedBitmap b, int xStart, int yStart, int xb, int yb, int w, int h, boolean colorKey) {
+        // Clip against the source bitmap
+        if (xb < 0) {
+            xStart -= xb;
+            w += xb;
+            xb = 0;
+        }
+        if (yb < 0) {
+            yStart -= yb;
+            h += yb;
+            yb = 0;
+        }
         if (w > b.width - xb) w = b.width - xb;
         if (h > b.height - yb) h = b.height - yb;
-        if (!(xb >= 0 && yb >= 0 && xb <= w && yb <= h)) return;
 
-        int x0 = xStart < 0 ? 0 : xStart;
-        int x1 = xStart + w;
-        int y0 = yStart < 0 ? 0 : yStart;
-        int y1 = yStart + h;
+        // Clip against this bitmap
+        if (xStart < 0) {
+            xb -= xStart;
+            w += xStart;
+            xStart = 0;
+        }
+        if (yStart < 0) {
+            yb -= yStart;
+            h += yStart;
+            yStart = 0;
+        }
+        if (w > width - xStart) w = width - xStart;
+        if (h > height - yStart) h = height - yStart;
+        if (w <= 0 || h <= 0) return;
+        markDamaged(xStart, yStart, w, h);
 
-        if (y1 > height) y1 = height;
-        if (x1 > width) x1 = width;
+        int sp = xb + yb * b.width;
+        int tp = offset + xStart + yStart * stride;
 
-        int col;
+        if (pixels != null) {
+            for (int r = 0; r < h; r++, sp += b.width, tp += stride)
+                expandRow(b, sp, pixels, tp, w, colorKey);
+            return;
+        }
+
+        int[] row = new int[w];
+        for (int r = 0; r < h; r++, sp += b.width, tp += stride) {
+            if (colorKey) storage.read(tp, row, 0, w);
+            expandRow(b, sp, row, 0, w, colorKey);
+            storage.write(tp, row, 0, w);
+        }
+    }
 
-        for (int yp = y0; yp < y1; yp++) {
-            int tp = yp * width;
-            int sp = (yp - yStart + yb) * b.width - (xStart - xb);
+    /**
+     * Looks up the colors of a row of palette indices.
+     */
+    private static void expandRow(IndexedBitmap b, int sp, int[] dst, int tp, int w, boolean colorKey) {
+        byte[] src = b.pixels;
+        int[] palette = b.palette;
 
-            for (int xp = x0; xp < x1; xp++) {
-                col = b.pixels[xp + sp];
-                if (col != 0)
-                    pixels[tp + xp] = col;
+        if (colorKey) {
+            for (int i = 0; i < w; i++) {
+                int col = palette[src[sp + i] & 0xFF];
+                if (col != 0) dst[tp + i] = col;
             }
+        } else {
+            for (int i = 0; i < w; i++)
+                dst[tp + i] = palette[src[sp + i] & 0xFF];
         }
     }
 
     /**
-     * Gets the width of this bitmap.
+     * Draws a compiled sprite onto this bitmap. The result is the same as with {@link #blitAlpha(Bitmap, int, int)},
+     * but only the opaque runs of the sprite are visited.
      *
-     * @return Width of this bitmap.
+     * @param s      Sprite to draw.
+     * @param xStart X coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin drawing. Can be negative.
      */
-    public int getWidth() {
-        return width;
+    public void blitAlpha(CompiledSprite s, int xStart, int yStart) {
+        int x0 = xStart < 0 ? 0 : xStart;
+        int y0 = yStart < 0 ? 0 : yStart;
+        int w = Math.min(xStart + s.width, width) - x0;
+        int h = Math.min(yStart + s.height, height) - y0;
+        if (w <= 0 || h <= 0) return;
+        markDamaged(x0, y0, w, h);
+
+        s.draw(this, xStart, yStart);
     }
 
     /**
-     * Gets the width of this bitmap.
+     * Draws the given bitmap stretched to the given size using "nearest neighbour" approach. Source positions are
+     * stepped in 16.16 fixed point and only the visible part of the target area is visited.
      *
-     * @return Width of this bitmap.
+     * @param b        Bitmap to draw. Its dimensions must be below 32768 pixels.
+     * @param xStart   X coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param yStart   Y coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param w        Width of the drawn area.
+     * @param h        Height of the drawn area.
+     * @param colorKey If true, pixels with the alpha colour 0x00000000 are not drawn.
      */
-    public int getHeight() {
-        return height;
+    public void blitScaled(Bitmap b, int xStart, int yStart, int w, int h, boolean colorKey) {
+        if (w <= 0 || h <= 0 || b.width == 0 || b.height == 0) return;
+
+        int x0 = Math.max(0, xStart), y0 = Math.max(0, yStart);
+        int x1 = (int) Math.min(width, (long) xStart + w), y1 = (int) Math.min(height, (long) yStart + h);
+        if (x0 >= x1 || y0 >= y1) return;
+        markDamaged(x0, y0, x1 - x0, y1 - y0);
+
+        int du = (int) (((long) b.width << 16) / w);
+        int dv = (int) (((long) b.height << 16) / h);
+        int uStart = (int) ((long) (x0 - xStart) * du + (du >> 1));
+        int v = (int) ((long) (y0 - yStart) * dv + (dv >> 1));
+        boolean arrays = pixels != null && b.pixels != null;
+
+        for (int y = y0; y < y1; y++, v += dv) {
+            int sp = b.offset + (v >> 16) * b.stride;
+            int tp = offset + y * stride + x0;
+            int tEnd = tp + (x1 - x0);
+            int u = uStart;
+
+            if (arrays) {
+                int[] src = b.pixels;
+                if (colorKey) {
+                    for (; tp < tEnd; tp++, u += du) {
+                        int col = src[sp + (u >> 16)];
+                        if (col != 0) pixels[tp] = col;
+                    }
+                } else {
+                    for (; tp < tEnd; tp++, u += du)
+                        pixels[tp] = src[sp + (u >> 16)];
+                }
+            } else {
+                for (; tp < tEnd; tp++, u += du) {
+                    int col = b.storage.get(sp + (u >> 16));
+                    if (!colorKey || col != 0) storage.set(tp, col);
+                }
+            }
+        }
     }
 
     /**
-     * Creates a resized version of the given bitmap using "nearest neighbour" approach.
+     * Draws a bitmap at the given scale, sampling the level of the mipmap chain nearest to the requested size.
+     * The cost depends on the amount of pixels drawn rather than on the size of the full-size bitmap.
      *
-     * @param b      The bitmap to resize.
-     * @param width  The width of the resized bitmap.
-     * @param height The height of the resized bitmap.
-     * @return A new instance of {@link Bitmap} which is resized version of <b>b</b>.
+     * @param m        Mipmap chain of the bitmap to draw.
+     * @param xStart   X coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param yStart   Y coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param scale    Scale of the drawn bitmap relative to its full size.
+     * @param colorKey If true, pixels with the alpha colour 0x00000000 are not drawn.
      */
-    public static Bitmap resize(Bitmap b, int width, int height) {
-        Bitmap result = new Bitmap(width, height);
-        double sw = (double) b.width / width;
-        double sh = (double) b.height / height;
+    public void blitScaled(Mipmap m, int xStart, int yStart, double scale, boolean colorKey) {
+        int w = (int) Math.round(m.getWidth() * scale);
+        int h = (int) Math.round(m.getHeight() * scale);
+        if (w <= 0 || h <= 0) return;
 
-        for (int y = 0; y < height; y++) {
-            int yy = (int) (y * sh);
-            for (int x = 0; x < width; x++) {
-                int xx = (int) (x * sw);
+        Bitmap level = m.getLevel(m.getLevelForScale(scale));
+        if (level.width == w && level.height == h) {
+            blitRegion(level, xStart, yStart, 0, 0, w, h, colorKey ? EBlendMode.COLOR_KEY : EBlendMode.REPLACE);
+            return;
+        }
+
+        blitScaled(level, xStart, yStart, w, h, colorKey);
+    }
+
+    /**
+     * Draws a rotated and scaled bitmap directly onto this one without creating intermediate bitmaps.
+     * The center of the given bitmap is placed at the given position. Source pixels are sampled using the
+     * "nearest neighbour" approach with 16.16 fixed-point stepping, and each row of the target is clipped
+     * to the exact span covered by the source, so no pixel outside of the source is visited.
+     *
+     * @param b        Bitmap to draw. Its dimensions must be below 32768 pixels.
+     * @param x        X coordinate position on this bitmap of the center of the drawn bitmap.
+     * @param y        Y coordinate position on this bitmap of the center of the drawn bitmap.
+     * @param angle    Angle of rotation in radians.
+     * @param scale    Scale of the drawn bitmap. Must be positive.
+     * @param colorKey If true, pixels with the alpha colour 0x00000000 are not drawn.
+     */
+    public void blitTransformed(Bitmap b, double x, double y, double angle, double scale, boolean colorKey) {
+        if (scale <= 0) throw new IllegalArgumentException("Scale must be positive");
+        if (b.width == 0 || b.height == 0) return;
+
+        double sin = Math.sin(angle), cos = Math.cos(angle);
+        double hw = b.width / 2.0, hh = b.height / 2.0;
+
+        // Bounding box of the transformed bitmap
+        double ex = (Math.abs(cos * hw) + Math.abs(sin * hh)) * scale;
+        double ey = (Math.abs(sin * hw) + Math.abs(cos * hh)) * scale;
+        int x0 = Math.max(0, (int) Math.floor(x - ex));
+        int y0 = Math.max(0, (int) Math.floor(y - ey));
+        int x1 = Math.min(width, (int) Math.ceil(x + ex));
+        int y1 = Math.min(height, (int) Math.ceil(y + ey));
+        if (x0 >= x1 || y0 >= y1) return;
+        markDamaged(x0, y0, x1 - x0, y1 - y0);
 
-                result.pixels[x + y * width] = b.pixels[xx + yy * b.width];
+        // Inverse mapping from the target to the source, in source pixels per target pixel
+        double dux = cos / scale, dvx = -sin / scale;
+        double duy = sin / scale, dvy = cos / scale;
+        int du = (int) Math.round(dux * 65536.0), dv = (int) Math.round(dvx * 65536.0);
+        int uMax = b.width << 16, vMax = b.height << 16;
+
+        for (int py = y0; py < y1; py++) {
+            // Source position of the center of the first pixel in the row
+            double rx = x0 + 0.5 - x, ry = py + 0.5 - y;
+            double u = rx * dux + ry * duy + hw;
+            double v = rx * dvx + ry * dvy + hh;
+
+            // Steps along the row for which both source coordinates are inside the source, widened by a pixel;
+            // the exact ends are found in fixed point below
+            double lo = 0, hi = x1 - x0;
+            if (dux != 0) {
+                double t0 = -u / dux, t1 = (b.width - u) / dux;
+                lo = Math.max(lo, Math.floor(Math.min(t0, t1)) - 1);
+                hi = Math.min(hi, Math.ceil(Math.max(t0, t1)) + 1);
+            }
+            if (dvx != 0) {
+                double t0 = -v / dvx, t1 = (b.height - v) / dvx;
+                lo = Math.max(lo, Math.floor(Math.min(t0, t1)) - 1);
+                hi = Math.min(hi, Math.ceil(Math.max(t0, t1)) + 1);
+            }
+            if (lo >= hi) continue;
+            int start = (int) lo, end = (int) hi;
+
+            int u0 = (int) Math.floor(u * 65536.0), v0 = (int) Math.floor(v * 65536.0);
+
+            // Fix up rounding at the ends of the span so that every sampled position is inside the source
+            while (start < end && !inside(u0 + start * du, v0 + start * dv, uMax, vMax)) start++;
+            while (end > start && !inside(u0 + (end - 1) * du, v0 + (end - 1) * dv, uMax, vMax)) end--;
+            if (start >= end) continue;
+
+            int uu = u0 + start * du, vv = v0 + start * dv;
+            int tp = offset + py * stride + x0 + start;
+            int tEnd = tp + (end - start);
+
+            if (pixels != null && b.pixels != null) {
+                int[] src = b.pixels;
+                int so = b.offset, ss = b.stride;
+                if (colorKey) {
+                    for (; tp < tEnd; tp++, uu += du, vv += dv) {
+                        int col = src[so + (uu >> 16) + (vv >> 16) * ss];
+                        if (col != 0) pixels[tp] = col;
+                    }
+                } else {
+                    for (; tp < tEnd; tp++, uu += du, vv += dv)
+                        pixels[tp] = src[so + (uu >> 16) + (vv >> 16) * ss];
+                }
+            } else {
+                for (; tp < tEnd; tp++, uu += du, vv += dv) {
+                    int col = b.storage.get(b.offset + (uu >> 16) + (vv >> 16) * b.stride);
+                    if (!colorKey || col != 0) storage.set(tp, col);
+                }
             }
         }
+    }
 
-        return result;
+    private static boolean inside(int u, int v, int uMax, int vMax) {
+        return u >= 0 && u < uMax && v >= 0 && v < vMax;
     }
 
     /**
-     * Creates a copy of the given bitmap.
+     * Performs a Block Image Transfer (blit) operation. Combines all of the pixel data from the given bitmap with this one
+     * using the given blend mode. The source pixels are treated as premultiplied if the given bitmap is marked as
+     * premultiplied (see {@link #setPremultiplied(boolean)}).
      *
-     * @param b Bitmap to create a copy from.
-     * @return Copy of the given bitmap.
+     * @param b      Bitmap to draw.
+     * @param xStart X coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param mode   How to combine the pixels.
      */
-    public static Bitmap copy(Bitmap b) {
-        Bitmap result = new Bitmap(b.width, b.height);
-        result.blit(b, 0, 0);
-        return result;
+    public void blitBlend(Bitmap b, int xStart, int yStart, EBlendMode mode) {
+        blitRegion(b, xStart, yStart, 0, 0, b.width, b.height, mode);
     }
 
     /**
-     * Rotates the bitmap around its center and outputs the result as a new object.
+     * Performs a Block Image Transfer (blit) operation. Combines some part of pixel data from the given bitmap with this one
+     * using the given blend mode. The source pixels are treated as premultiplied if the given bitmap is marked as
+     * premultiplied (see {@link #setPremultiplied(boolean)}).
      *
-     * @param b     Bitmap to rotate.
-     * @param angle Angle of rotation in radians.
-     * @return An object of {@link com.jpixel.image.Bitmap} containing rotated pixels.
+     * @param b      Bitmap to draw.
+     * @param xStart X coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param yStart Y coordinate position on this bitmap to which begin drawing. Can be negative.
+     * @param xb     X coordinate position on the given bitmap from which begin drawing.
+     * @param yb     Y coordinate position on the given bitmap from which begin drawing.
+     * @param w      Width of the area to draw.
+     * @param h      Height of the area to draw.
+     * @param mode   How to combine the pixels.
      */
-    public static Bitmap rotate(Bitmap b, double angle) {
-        double vx_x = MathUtils.rotate_x(angle, 1.0, 0.0);
-        double vx_y = MathUtils.rotate_y(angle, 1.0, 0.0);
-        double vy_x = MathUtils.rotate_x(angle, 0.0, 1.0);
-        double vy_y = MathUtils.rotate_y(angle, 0.0, 1.0);
-
-        double ww = Math.abs(vx_x * b.width) + Math.abs(vx_y * b.height);
-        double hh = Math.abs(vx_y * b.width) + Math.abs(vy_y * b.height);
-
-        int w = (int) Math.round(ww);
-        int h = (int) Math.round(hh);
+    public void blitBlend(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h, EBlendMode mode) {
+        blitRegion(b, xStart, yStart, xb, yb, w, h, mode);
+    }
 
-        int cx = (int) ((w - b.width) / 2.0);
-        int cy = (int) ((h - b.height) / 2.0);
+    /**
+     * Draws a line with Bresenham's algorithm. The line is clipped to the bounds of the bitmap once, before it is drawn,
+     * and draws the same pixels as the part of the unclipped line that lies inside the bitmap.
+     *
+     * @param color Color of the line.
+     * @param x0    X coordinate of the start point. Can be outside the bitmap.
+     * @param y0    Y coordinate of the start point. Can be outside the bitmap.
+     * @param x1    X coordinate of the end point. Can be outside the bitmap.
+     * @param y1    Y coordinate of the end point. Can be outside the bitmap.
+     */
+    public void drawLine(int color, int x0, int y0, int x1, int y1) {
+        long a = Math.abs((long) x1 - x0), b = Math.abs((long) y1 - y0);
+        int dx = (int) a, dy = (int) -b;
+        int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
 
-        double nx0 = MathUtils.rotate_x(angle, -b.width / 2 - cx, -b.height / 2 - cy) + b.width / 2;
-        double ny0 = MathUtils.rotate_y(angle, -b.width / 2 - cx, -b.height / 2 - cy) + b.height / 2;
+        if (x0 < 0 || y0 < 0 || x0 >= width || y0 >= height || x1 < 0 || y1 < 0 || x1 >= width || y1 >= height) {
+            // Step k along the major axis moves (2 * n * k + m) / (2 * m) pixels along the minor axis, so the visible
+            // steps are found directly and the line starts there with the error term the loop would have reached
+            boolean xMajor = a >= b;
+            long m = xMajor ? a : b, n = xMajor ? b : a;
+            long kMin = Math.max(0, xMajor ? stepsFrom(x0, sx, width) : stepsFrom(y0, sy, height));
+            long kMax = Math.min(m, xMajor ? stepsTo(x0, sx, width) : stepsTo(y0, sy, height));
+            long tMin = Math.max(0, xMajor ? stepsFrom(y0, sy, height) : stepsFrom(x0, sx, width));
+            long tMax = Math.min(n, xMajor ? stepsTo(y0, sy, height) : stepsTo(x0, sx, width));
+            if (tMin > tMax) return;
+            if (n > 0) {
+                kMin = Math.max(kMin, ceilDiv(2 * m * tMin - m, 2 * n));
+                kMax = Math.min(kMax, ceilDiv(2 * m * tMax + m, 2 * n) - 1);
+            }
+            if (kMin > kMax) return;
 
-        if (nx0 >= b.width) nx0--;
-        if (ny0 >= b.height) ny0--;
+            long tStart = (2 * n * kMin + m) / (2 * m), tEnd = (2 * n * kMax + m) / (2 * m);
+            long i = xMajor ? kMin : tStart, j = xMajor ? tStart : kMin;
+            err = (int) (a * (j + 1) - b * (i + 1));
+            x1 = (int) (x0 + sx * (xMajor ? kMax : tEnd));
+            y1 = (int) (y0 + sy * (xMajor ? tEnd : kMax));
+            x0 += sx * i;
+            y0 += sy * j;
+        }
+        addDamage(Math.min(x0, x1), Math.min(y0, y1), Math.max(x0, x1) + 1, Math.max(y0, y1) + 1);
 
-        Bitmap result = new Bitmap(w, h);
+        int sp = sy * stride;
+        int[] px = pixels;
+        for (int p = offset + x0 + y0 * stride, end = offset + x1 + y1 * stride; ; ) {
+            if (px != null)
+                px[p] = color;
+            else
+                storage.set(p, color);
+            if (p == end) break;
 
-        for (int y = 0; y < h; y++) {
-            double pos2_x = nx0 + (y * vy_x);
-            double pos2_y = ny0 + (y * vy_y);
-            for (int x = 0; x < w; x++) {
-                int xx = (int) (pos2_x + (x * vx_x));
-                int yy = (int) (pos2_y + (x * vx_y));
-                if (xx < 0 || xx >= b.width || yy < 0 || yy >= b.height) continue;
-                result.pixels[x + y * w] = b.pixels[xx + yy * b.width];
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                p += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                p += sp;
             }
         }
+    }
 
-        return result;
+    /**
+     * First step from the given coordinate in the given direction that lies inside [0, size).
+     */
+    private static long stepsFrom(int c, int dir, int size) {
+        return dir > 0 ? -(long) c : (long) c - (size - 1);
+    }
+
+    /**
+     * Last step from the given coordinate in the given direction that lies inside [0, size).
+     */
+    private static long stepsTo(int c, int dir, int size) {
+        return dir > 0 ? (long) size - 1 - c : c;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return a > 0 ? (a + b - 1) / b : a / b;
+    }
+
+    /**
+     * Draws the outline of a rectangle.
+     *
+     * @param color Color of the outline.
+     * @param x     X coordinate of the rectangle. Can be negative.
+     * @param y     Y coordinate of the rectangle. Can be negative.
+     * @param w     Width of the rectangle.
+     * @param h     Height of the rectangle.
+     */
+    public void drawRect(int color, int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        fill(color, x, y, w, 1);
+        if (h == 1) return;
+        fill(color, x, y + h - 1, w, 1);
+        fill(color, x, y + 1, 1, h - 2);
+        if (w > 1) fill(color, x + w - 1, y + 1, 1, h - 2);
+    }
+
+    /**
+     * Draws the outline of a circle with the midpoint algorithm.
+     *
+     * @param color Color of the outline.
+     * @param cx    X coordinate of the center. Can be outside the bitmap.
+     * @param cy    Y coordinate of the center. Can be outside the bitmap.
+     * @param r     Radius of the circle.
+     */
+    public void drawCircle(int color, int cx, int cy, int r) {
+        if (r < 0 || !addDamage(cx - r, cy - r, cx + r + 1, cy + r + 1)) return;
+        boolean clip = cx - r < 0 || cy - r < 0 || cx + r >= width || cy + r >= height;
+
+        int x = r, y = 0, err = 1 - r;
+        while (x >= y) {
+            plot(color, cx + x, cy + y, clip);
+            plot(color, cx - x, cy + y, clip);
+            plot(color, cx + x, cy - y, clip);
+            plot(color, cx - x, cy - y, clip);
+            plot(color, cx + y, cy + x, clip);
+            plot(color, cx - y, cy + x, clip);
+            plot(color, cx + y, cy - x, clip);
+            plot(color, cx - y, cy - x, clip);
+
+            y++;
+            if (err < 0) {
+                err += 2 * y + 1;
+            } else {
+                x--;
+                err += 2 * (y - x) + 1;
+            }
+        }
+    }
+
+    /**
+     * Fills a circle.
+     *
+     * @param color Color to fill with.
+     * @param cx    X coordinate of the center. Can be outside the bitmap.
+     * @param cy    Y coordinate of the center. Can be outside the bitmap.
+     * @param r     Radius of the circle.
+     */
+    public void fillCircle(int color, int cx, int cy, int r) {
+        fillEllipse(color, cx, cy, r, r);
+    }
+
+    /**
+     * Draws the outline of an axis-aligned ellipse with the midpoint algorithm.
+     *
+     * @param color Color of the outline.
+     * @param cx    X coordinate of the center. Can be outside the bitmap.
+     * @param cy    Y coordinate of the center. Can be outside the bitmap.
+     * @param rx    Horizontal radius of the ellipse.
+     * @param ry    Vertical radius of the ellipse.
+     */
+    public void drawEllipse(int color, int cx, int cy, int rx, int ry) {
+        if (rx < 0 || ry < 0) return;
+        if (rx == 0 || ry == 0) {
+            fill(color, cx - rx, cy - ry, 2 * rx + 1, 2 * ry + 1);
+            return;
+        }
+        if (!addDamage(cx - rx, cy - ry, cx + rx + 1, cy + ry + 1)) return;
+        boolean clip = cx - rx < 0 || cy - ry < 0 || cx + rx >= width || cy + ry >= height;
+
+        long rx2 = (long) rx * rx, ry2 = (long) ry * ry;
+        int x = 0, y = ry;
+        long px = 0, py = 2 * rx2 * y;
+
+        // Region 1: the slope is less than 1, step in x
+        long p = ry2 - rx2 * ry + rx2 / 4;
+        while (px < py) {
+            plot4(color, cx, cy, x, y, clip);
+            x++;
+            px += 2 * ry2;
+            if (p < 0) {
+                p += ry2 + px;
+            } else {
+                y--;
+                py -= 2 * rx2;
+                p += ry2 + px - py;
+            }
+        }
+
+        // Region 2: step in y
+        p = (long) (ry2 * (x + 0.5) * (x + 0.5) + rx2 * (y - 1.0) * (y - 1.0) - rx2 * ry2);
+        while (y >= 0) {
+            plot4(color, cx, cy, x, y, clip);
+            y--;
+            py -= 2 * rx2;
+            if (p > 0) {
+                p += rx2 - py;
+            } else {
+                x++;
+                px += 2 * ry2;
+                p += rx2 - py + px;
+            }
+        }
+    }
+
+    /**
+     * Fills an axis-aligned ellipse.
+     *
+     * @param color Color to fill with.
+     * @param cx    X coordinate of the center. Can be outside the bitmap.
+     * @param cy    Y coordinate of the center. Can be outside the bitmap.
+     * @param rx    Horizontal radius of the ellipse.
+     * @param ry    Vertical radius of the ellipse.
+     */
+    public void fillEllipse(int color, int cx, int cy, int rx, int ry) {
+        if (rx < 0 || ry < 0 || !addDamage(cx - rx, cy - ry, cx + rx + 1, cy + ry + 1)) return;
+
+        double ry2 = (double) ry * ry;
+        for (int y = Math.max(cy - ry, 0), yEnd = Math.min(cy + ry, height - 1); y <= yEnd; y++) {
+            int dy = y - cy;
+            int half = ry == 0 ? rx : (int) (rx * Math.sqrt(1 - dy * dy / ry2) + 0.5);
+            fillSpan(color, cx - half, cx + half + 1, y);
+        }
+    }
+
+    /**
+     * Draws the outline of a triangle.
+     *
+     * @param color Color of the outline.
+     * @param x0    X coordinate of the first corner.
+     * @param y0    Y coordinate of the first corner.
+     * @param x1    X coordinate of the second corner.
+     * @param y1    Y coordinate of the second corner.
+     * @param x2    X coordinate of the third corner.
+     * @param y2    Y coordinate of the third corner.
+     */
+    public void drawTriangle(int color, int x0, int y0, int x1, int y1, int x2, int y2) {
+        drawLine(color, x0, y0, x1, y1);
+        drawLine(color, x1, y1, x2, y2);
+        drawLine(color, x2, y2, x0, y0);
+    }
+
+    /**
+     * Fills a triangle by stepping along its edges and filling the spans between them. A pixel is filled if its
+     * top-left corner is inside the triangle, so triangles that share an edge do not overlap.
+     *
+     * @param color Color to fill with.
+     * @param x0    X coordinate of the first corner.
+     * @param y0    Y coordinate of the first corner.
+     * @param x1    X coordinate of the second corner.
+     * @param y1    Y coordinate of the second corner.
+     * @param x2    X coordinate of the third corner.
+     * @param y2    Y coordinate of the third corner.
+     */
+    public void fillTriangle(int color, int x0, int y0, int x1, int y1, int x2, int y2) {
+        int t;
+        // Sort the corners from top to bottom
+        if (y1 < y0) {
+            t = x0;
+            x0 = x1;
+            x1 = t;
+            t = y0;
+            y0 = y1;
+            y1 = t;
+        }
+        if (y2 < y0) {
+            t = x0;
+            x0 = x2;
+            x2 = t;
+            t = y0;
+            y0 = y2;
+            y2 = t;
+        }
+        if (y2 < y1) {
+            t = x1;
+            x1 = x2;
+            x2 = t;
+            t = y1;
+            y1 = y2;
+            y2 = t;
+        }
+        if (y0 == y2) return;
+        if (!addDamage(Math.min(x0, Math.min(x1, x2)), y0, Math.max(x0, Math.max(x1, x2)) + 1, y2)) return;
+
+        // Edge slopes in 16.16 fixed point. The long edge runs from the top to the bottom corner.
+        long s02 = ((long) (x2 - x0) << 16) / (y2 - y0);
+        long s01 = y1 == y0 ? 0 : ((long) (x1 - x0) << 16) / (y1 - y0);
+        long s12 = y2 == y1 ? 0 : ((long) (x2 - x1) << 16) / (y2 - y1);
+
+        int yStart = Math.max(y0, 0), yEnd = Math.min(y2, height);
+        long xa = ((long) x0 << 16) + s02 * (yStart - y0);
+        long xb = yStart < y1 ? ((long) x0 << 16) + s01 * (yStart - y0) : ((long) x1 << 16) + s12 * (yStart - y1);
+
+        for (int y = yStart; y < yEnd; y++) {
+            if (y == y1) xb = (long) x1 << 16;
+            fillSpan(color, ceil16(Math.min(xa, xb)), ceil16(Math.max(xa, xb)), y);
+            xa += s02;
+            xb += y < y1 ? s01 : s12;
+        }
+    }
+
+    /**
+     * Draws the outline of a polygon.
+     *
+     * @param color Color of the outline.
+     * @param xs    X coordinates of the corners.
+     * @param ys    Y coordinates of the corners.
+     * @param n     Amount of corners.
+     */
+    public void drawPolygon(int color, int[] xs, int[] ys, int n) {
+        checkPolygon(xs, ys, n);
+        for (int i = 0, j = n - 1; i < n; j = i++)
+            drawLine(color, xs[j], ys[j], xs[i], ys[i]);
+    }
+
+    /**
+     * Fills a convex polygon by stepping along its left and right edges and filling the spans between them. The
+     * corners can be in either winding order. Uses the same fill convention as
+     * {@link #fillTriangle(int, int, int, int, int, int, int)}.
+     *
+     * @param color Color to fill with.
+     * @param xs    X coordinates of the corners.
+     * @param ys    Y coordinates of the corners.
+     * @param n     Amount of corners.
+     */
+    public void fillConvexPolygon(int color, int[] xs, int[] ys, int n) {
+        checkPolygon(xs, ys, n);
+        if (n < 3) return;
+
+        int top = 0, yMax = ys[0], xMin = xs[0], xMax = xs[0];
+        for (int i = 1; i < n; i++) {
+            if (ys[i] < ys[top]) top = i;
+            yMax = Math.max(yMax, ys[i]);
+            xMin = Math.min(xMin, xs[i]);
+            xMax = Math.max(xMax, xs[i]);
+        }
+        int yMin = ys[top];
+        if (yMin == yMax || !addDamage(xMin, yMin, xMax + 1, yMax)) return;
+
+        // Chain a walks forward from the top corner, chain b backward
+        int ea = top, eb = top, fa, fb;
+        int yaEnd = yMin, ybEnd = yMin;
+        long xa = 0, sa = 0, xb = 0, sb = 0;
+
+        for (int y = Math.max(yMin, 0), yEnd = Math.min(yMax, height); y < yEnd; y++) {
+            if (y >= yaEnd) {
+                do {
+                    fa = ea;
+                    ea = ea + 1 == n ? 0 : ea + 1;
+                } while (ys[ea] <= y);
+                yaEnd = ys[ea];
+                sa = ((long) (xs[ea] - xs[fa]) << 16) / (ys[ea] - ys[fa]);
+                xa = ((long) xs[fa] << 16) + sa * (y - ys[fa]);
+            }
+            if (y >= ybEnd) {
+                do {
+                    fb = eb;
+                    eb = eb == 0 ? n - 1 : eb - 1;
+                } while (ys[eb] <= y);
+                ybEnd = ys[eb];
+                sb = ((long) (xs[eb] - xs[fb]) << 16) / (ys[eb] - ys[fb]);
+                xb = ((long) xs[fb] << 16) + sb * (y - ys[fb]);
+            }
+
+            fillSpan(color, ceil16(Math.min(xa, xb)), ceil16(Math.max(xa, xb)), y);
+            xa += sa;
+            xb += sb;
+        }
+    }
+
+    /**
+     * Fills an arbitrary polygon, which may be concave or intersect itself. See {@link PolygonFiller}.
+     *
+     * @param color       Color to fill with.
+     * @param xy          Coordinates of the vertices as (x, y) pairs.
+     * @param vertexCount Amount of vertices.
+     * @param rule        Fill rule.
+     * @param antialias   If true, the edges are anti-aliased by sampling each row four times.
+     */
+    public void fillPolygon(int color, float[] xy, int vertexCount, EFillRule rule, boolean antialias) {
+        POLYGON_FILLER.get().fill(this, color, xy, vertexCount, rule, antialias);
+    }
+
+    /**
+     * Fills a polygon made of several outlines, e.g. an area with holes. See {@link PolygonFiller}.
+     *
+     * @param color        Color to fill with.
+     * @param xy           Coordinates of the vertices as (x, y) pairs.
+     * @param contours     Amount of vertices in each outline.
+     * @param contourCount Amount of outlines.
+     * @param rule         Fill rule.
+     * @param antialias    If true, the edges are anti-aliased by sampling each row four times.
+     */
+    public void fillPolygon(int color, float[] xy, int[] contours, int contourCount, EFillRule rule, boolean antialias) {
+        POLYGON_FILLER.get().fill(this, color, xy, contours, contourCount, rule, antialias);
+    }
+
+    /**
+     * Clips the source area against the bounds of both bitmaps and copies the remaining rows.
+     * All bounds are exclusive, i.e. the copied area is [xb, xb + w) x [yb, yb + h).
+     *
+     * @param b        Bitmap to copy.
+     * @param xStart   X coordinate position on this bitmap to which begin copying.
+     * @param yStart   Y coordinate position on this bitmap to which begin copying.
+     * @param xb       X coordinate position on the given bitmap from which begin copying.
+     * @param yb       Y coordinate position on the given bitmap from which begin copying.
+     * @param w        Width of the area to copy.
+     * @param h        Height of the area to copy.
+     * @param mode     How to combine the pixels.
+     */
+    private void blitRegion(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h, EBlendMode mode) {
+        // Clip against the source bitmap
+        if (xb < 0) {
+            xStart -= xb;
+            w += xb;
+            xb = 0;
+        }
+        if (yb < 0) {
+            yStart -= yb;
+            h += yb;
+            yb = 0;
+        }
+        if (w > b.width - xb) w = b.width - xb;
+        if (h > b.height - yb) h = b.height - yb;
+
+        // Clip against this bitmap
+        if (xStart < 0) {
+            xb -= xStart;
+            w += xStart;
+            xStart = 0;
+        }
+        if (yStart < 0) {
+            yb -= yStart;
+            h += yStart;
+            yStart = 0;
+        }
+        if (w > width - xStart) w = width - xStart;
+        if (h > height - yStart) h = height - yStart;
+        if (w <= 0 || h <= 0) return;
+        markDamaged(xStart, yStart, w, h);
+
+        switch (mode) {
+            case REPLACE:
+                copySpans(b, xStart, yStart, xb, yb, w, h);
+                break;
+            case COLOR_KEY:
+                copySpansKeyed(b, xStart, yStart, xb, yb, w, h);
+                break;
+            default:
+                blendSpans(b, xStart, yStart, xb, yb, w, h, mode);
+                break;
+        }
+    }
+
+    /**
+     * Fills already clipped rows with a single color, splitting them into bands if an executor is set.
+     */
+    private void fillSpans(final int color, final int x, final int y, final int w, int h) {
+        if (executor == null) {
+            fillRows(color, x, y, w, h);
+            return;
+        }
+
+        executor.execute(w, h, new BandedExecutor.Band() {
+            @Override
+            public void process(int y0, int y1) {
+                fillRows(color, x, y + y0, w, y1 - y0);
+            }
+        });
+    }
+
+    /**
+     * Fills already clipped rows with a single color.
+     */
+    private void fillRows(int color, int x, int y, int w, int h) {
+        int tp = offset + x + y * stride;
+
+        if (w == stride) {
+            if (pixels != null)
+                Arrays.fill(pixels, tp, tp + w * h, color);
+            else
+                storage.fill(tp, w * h, color);
+            return;
+        }
+
+        for (int end = tp + h * stride; tp < end; tp += stride) {
+            if (pixels != null)
+                Arrays.fill(pixels, tp, tp + w, color);
+            else
+                storage.fill(tp, w, color);
+        }
+    }
+
+    /**
+     * Copies already clipped rows from the given bitmap.
+     */
+    private void copySpans(Bitmap b, int x, int y, int xb, int yb, int w, int h) {
+        int[] src = b.pixels;
+
+        if (src == null || pixels == null) {
+            copyStorageSpans(b, x, y, xb, yb, w, h);
+            return;
+        }
+
+        int ss = b.stride;
+        int sp = b.offset + xb + yb * ss;
+        int tp = offset + x + y * stride;
+
+        // The copied rows are complete in both bitmaps, so the whole block is contiguous
+        if (w == stride && w == ss) {
+            System.arraycopy(src, sp, pixels, tp, w * h);
+            return;
+        }
+
+        // Copy bottom-up if the source rows lie above the target rows in the same array
+        if (src == pixels && sp < tp) {
+            for (int r = h - 1; r >= 0; r--)
+                System.arraycopy(src, sp + r * ss, pixels, tp + r * stride, w);
+            return;
+        }
+
+        for (int r = 0; r < h; r++, sp += ss, tp += stride)
+            System.arraycopy(src, sp, pixels, tp, w);
+    }
+
+    /**
+     * Copies already clipped rows from the given bitmap when either of the bitmaps is not backed by an array.
+     */
+    private void copyStorageSpans(Bitmap b, int x, int y, int xb, int yb, int w, int h) {
+        PixelStorage src = b.storage;
+        int ss = b.stride;
+        int sp = b.offset + xb + yb * ss;
+        int tp = offset + x + y * stride;
+
+        if (w == stride && w == ss) {
+            storage.copy(src, sp, tp, w * h);
+            return;
+        }
+
+        if (src == storage && sp < tp) {
+            for (int r = h - 1; r >= 0; r--)
+                storage.copy(src, sp + r * ss, tp + r * stride, w);
+            return;
+        }
+
+        for (int r = 0; r < h; r++, sp += ss, tp += stride)
+            storage.copy(src, sp, tp, w);
+    }
+
+    /**
+     * Copies already clipped rows from the given bitmap, skipping pixels with value 0x00000000.
+     */
+    private void copySpansKeyed(Bitmap b, int x, int y, int xb, int yb, int w, int h) {
+        int[] src = b.pixels;
+        int ss = b.stride;
+        int sp = b.offset + xb + yb * ss;
+        int tp = offset + x + y * stride;
+        int col;
+
+        // Copy backwards (bottom-up, right to left) if the source lies before the target in the same storage
+        if (b.storage == storage && sp < tp) {
+            sp += (h - 1) * ss;
+            tp += (h - 1) * stride;
+            for (int r = 0; r < h; r++, sp -= ss, tp -= stride) {
+                for (int i = w - 1; i >= 0; i--) {
+                    if (src != null) {
+                        col = src[sp + i];
+                        if (col != 0)
+                            pixels[tp + i] = col;
+                    } else {
+                        col = storage.get(sp + i);
+                        if (col != 0)
+                            storage.set(tp + i, col);
+                    }
+                }
+            }
+            return;
+        }
+
+        if (src == null || pixels == null) {
+            PixelStorage srcStorage = b.storage;
+            for (int r = 0; r < h; r++, sp += ss, tp += stride) {
+                for (int i = 0; i < w; i++) {
+                    col = srcStorage.get(sp + i);
+                    if (col != 0)
+                        storage.set(tp + i, col);
+                }
+            }
+            return;
+        }
+
+        for (int r = 0; r < h; r++, sp += ss, tp += stride)
+            PixelKernels.copyColorKey(src, sp, pixels, tp, w);
+    }
+
+    /**
+     * Blends already clipped rows from the given bitmap onto this one.
+     */
+    private void blendSpans(Bitmap b, int x, int y, int xb, int yb, int w, int h, EBlendMode mode) {
+        int ss = b.stride;
+        int sp = b.offset + xb + yb * ss;
+        int tp = offset + x + y * stride;
+        int ts = stride;
+
+        // Blend bottom-up from a copy of each source row if the source lies before the target in the same storage
+        boolean overlap = b.storage == storage && sp < tp;
+        if (overlap) {
+            sp += (h - 1) * ss;
+            tp += (h - 1) * ts;
+            ss = -ss;
+            ts = -ts;
+        }
+
+        if (b.pixels != null && pixels != null && !overlap) {
+            for (int r = 0; r < h; r++, sp += ss, tp += ts)
+                blendRow(b.pixels, sp, pixels, tp, w, mode, b.isPremultiplied());
+            return;
+        }
+
+        int[] src = new int[w];
+        int[] dst = new int[w];
+        for (int r = 0; r < h; r++, sp += ss, tp += ts) {
+            b.storage.read(sp, src, 0, w);
+            storage.read(tp, dst, 0, w);
+            blendRow(src, 0, dst, 0, w, mode, b.isPremultiplied());
+            storage.write(tp, dst, 0, w);
+        }
+    }
+
+    /**
+     * Blends a single row of pixels.
+     */
+    private static void blendRow(int[] src, int sp, int[] dst, int tp, int w, EBlendMode mode, boolean premultiplied) {
+        int end = sp + w;
+
+        switch (mode) {
+            case SOURCE_OVER:
+                if (premultiplied) {
+                    for (; sp < end; sp++, tp++) dst[tp] = ColorMath.blendSourceOverPremultiplied(dst[tp], src[sp]);
+                } else {
+                    for (; sp < end; sp++, tp++) dst[tp] = ColorMath.blendSourceOver(dst[tp], src[sp]);
+                }
+                break;
+            case ADDITIVE:
+                if (premultiplied) {
+                    for (; sp < end; sp++, tp++) dst[tp] = ColorMath.blendAdditivePremultiplied(dst[tp], src[sp]);
+                } else {
+                    for (; sp < end; sp++, tp++) dst[tp] = ColorMath.blendAdditive(dst[tp], src[sp]);
+                }
+                break;
+            case MULTIPLY:
+                if (premultiplied) {
+                    for (; sp < end; sp++, tp++) dst[tp] = ColorMath.blendMultiplyPremultiplied(dst[tp], src[sp]);
+                } else {
+                    for (; sp < end; sp++, tp++) dst[tp] = ColorMath.blendMultiply(dst[tp], src[sp]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Not a blending mode: " + mode);
+        }
+    }
+
+    /**
+     * Fills a single row between the given columns. The row must be inside the bitmap; the columns are clipped.
+     */
+    private void fillSpan(int color, int x0, int x1, int y) {
+        if (x0 < 0) x0 = 0;
+        if (x1 > width) x1 = width;
+        if (x0 >= x1) return;
+
+        int p = offset + x0 + y * stride;
+        if (pixels != null)
+            Arrays.fill(pixels, p, p + x1 - x0, color);
+        else
+            storage.fill(p, x1 - x0, color);
+    }
+
+    /**
+     * Sets a single pixel. The bounds are only checked if the primitive being drawn was not entirely inside the bitmap.
+     */
+    private void plot(int color, int x, int y, boolean clip) {
+        if (clip && (x < 0 || y < 0 || x >= width || y >= height)) return;
+
+        int p = offset + x + y * stride;
+        if (pixels != null)
+            pixels[p] = color;
+        else
+            storage.set(p, color);
+    }
+
+    /**
+     * Sets the four pixels mirrored around a center.
+     */
+    private void plot4(int color, int cx, int cy, int x, int y, boolean clip) {
+        plot(color, cx + x, cy + y, clip);
+        plot(color, cx - x, cy + y, clip);
+        plot(color, cx + x, cy - y, clip);
+        plot(color, cx - x, cy - y, clip);
+    }
+
+    /**
+     * Records an area as damaged in the damage tracker, if one is set. The area must be inside the bitmap.
+     *
+     * @param x X coordinate of the area.
+     * @param y Y coordinate of the area.
+     * @param w Width of the area.
+     * @param h Height of the area.
+     */
+    protected void markDamaged(int x, int y, int w, int h) {
+        if (damage != null) damage.add(x, y, w, h);
+    }
+
+    /**
+     * Clips an area to the bitmap and records it as damaged.
+     *
+     * @return False, if the area is entirely outside of the bitmap.
+     */
+    private boolean addDamage(int x0, int y0, int x1, int y1) {
+        x0 = Math.max(x0, 0);
+        y0 = Math.max(y0, 0);
+        x1 = Math.min(x1, width);
+        y1 = Math.min(y1, height);
+        if (x0 >= x1 || y0 >= y1) return false;
+
+        markDamaged(x0, y0, x1 - x0, y1 - y0);
+        return true;
+    }
+
+    private static int ceil16(long v) {
+        return (int) ((v + 0xFFFF) >> 16);
+    }
+
+    private static void checkPolygon(int[] xs, int[] ys, int n) {
+        if (n < 0 || xs.length < n || ys.length < n)
+            throw new IllegalArgumentException("Not enough coordinates for " + n + " corners");
+    }
+
+    /**
+     * Gets the width of this bitmap.
+     *
+     * @return Width of this bitmap.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the width of this bitmap.
+     *
+     * @return Width of this bitmap.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Marks the pixel data of this bitmap as premultiplied or straight alpha. This does not change the pixels;
+     * see {@link #premultiply()} to convert them. Views share the flag with the bitmap they were created from.
+     *
+     * @param premultiplied True, if the color channels of the pixels are premultiplied by their alpha.
+     */
+    public void setPremultiplied(boolean premultiplied) {
+        this.premultiplied = premultiplied;
+    }
+
+    /**
+     * Checks if the pixel data of this bitmap is premultiplied by alpha.
+     *
+     * @return True, if the color channels of the pixels are premultiplied by their alpha.
+     */
+    public boolean isPremultiplied() {
+        return premultiplied;
+    }
+
+    /**
+     * Converts the pixels of this bitmap to premultiplied alpha and marks the bitmap as premultiplied.
+     * Does nothing if the bitmap is already premultiplied. Blending premultiplied bitmaps saves a multiplication per pixel.
+     * Calling this on a view converts the whole bitmap the view was created from, as they share the pixel data.
+     */
+    public void premultiply() {
+        if (premultiplied) return;
+
+        markDamaged(0, 0, width, height);
+
+        for (int y = 0; y < height; y++) {
+            int tp = offset + y * stride;
+            for (int i = tp, end = tp + width; i < end; i++) {
+                if (pixels != null)
+                    pixels[i] = ColorMath.premultiply(pixels[i]);
+                else
+                    storage.set(i, ColorMath.premultiply(storage.get(i)));
+            }
+        }
+        premultiplied = true;
+    }
+
+    /**
+     * Gets the index of the top-left pixel of this bitmap in the pixel data.
+     *
+     * @return Index of the first pixel.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the distance between the starts of two rows in the pixel data.
+     *
+     * @return Row stride of this bitmap.
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Creates a view of an area of this bitmap. The view shares the pixels with this bitmap,
+     * so no pixels are copied and changes to either are visible in both.
+     *
+     * @param x X coordinate of the area.
+     * @param y Y coordinate of the area.
+     * @param w Width of the area.
+     * @param h Height of the area.
+     * @return A view of the area.
+     */
+    public BitmapView subBitmap(int x, int y, int w, int h) {
+        return new BitmapView(this, x, y, w, h);
+    }
+
+    /**
+     * Gets the storage that holds the pixel data of this bitmap.
+     *
+     * @return The pixel storage.
+     */
+    public PixelStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Sets the executor used to process large operations in parallel bands of rows. It is used by:
+     * <ul>
+     * <li>{@link #clear(int)} and {@link #fill(int, int, int, int, int)}, and so also by
+     * {@link #drawRect(int, int, int, int, int)};</li>
+     * <li>{@link #apply(PixelOperation)}, {@link #apply(PixelOperation, int, int, int, int)},
+     * {@link #apply(ColorLUT)}, {@link #apply(ColorLUT, int, int, int, int)}, {@link #multiplyRGB(int)} and
+     * {@link #blendColor(int, int)};</li>
+     * <li>{@link #resize(Bitmap, int, int)}, {@link #resize(Bitmap, int, int, EResizeMode)},
+     * {@link #resize(Bitmap, Bitmap, EResizeMode)} and {@link #rotate(Bitmap, double)}, when this bitmap is the
+     * source.</li>
+     * </ul>
+     * The overloads of resize and rotate that take an executor use that one instead.
+     *
+     * @param executor Executor to use. Pass null to process all operations sequentially.
+     */
+    public void setExecutor(BandedExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the executor used to process large operations in parallel.
+     *
+     * @return The executor, or null if all operations are processed sequentially.
+     */
+    public BandedExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the tracker that records the areas touched by {@link #clear(int)}, fill and blit operations.
+     *
+     * @param damage Tracker to record the areas into. Pass null to disable tracking.
+     */
+    public void setDamageTracker(DamageTracker damage) {
+        this.damage = damage;
+    }
+
+    /**
+     * Gets the tracker that records the drawn areas.
+     *
+     * @return The tracker, or null if the areas are not tracked.
+     */
+    public DamageTracker getDamageTracker() {
+        return damage;
+    }
+
+    /**
+     * Creates a resized version of the given bitmap using "nearest neighbour" approach.
+     * Uses the executor of the given bitmap, if one is set.
+     *
+     * @param b      The bitmap to resize.
+     * @param width  The width of the resized bitmap.
+     * @param height The height of the resized bitmap.
+     * @return A new instance of {@link Bitmap} which is resized version of <b>b</b>.
+     */
+    public static Bitmap resize(Bitmap b, int width, int height) {
+        return resize(b, width, height, EResizeMode.NEAREST);
+    }
+
+    /**
+     * Creates a resized version of the given bitmap using "nearest neighbour" approach.
+     *
+     * @param b        The bitmap to resize.
+     * @param width    The width of the resized bitmap.
+     * @param height   The height of the resized bitmap.
+     * @param executor Executor to process the rows of the result in parallel. Pass null to resize sequentially.
+     * @return A new instance of {@link Bitmap} which is resized version of <b>b</b>.
+     */
+    public static Bitmap resize(Bitmap b, int width, int height, BandedExecutor executor) {
+        Bitmap result = new Bitmap(width, height, b.storage.allocate(width * height));
+        resize(b, result, EResizeMode.NEAREST, executor);
+        return result;
+    }
+
+    /**
+     * Creates a resized version of the given bitmap. Uses the executor of the given bitmap, if one is set.
+     *
+     * @param b      The bitmap to resize.
+     * @param width  The width of the resized bitmap.
+     * @param height The height of the resized bitmap.
+     * @param mode   How to sample the pixels.
+     * @return A new instance of {@link Bitmap} which is resized version of <b>b</b>.
+     */
+    public static Bitmap resize(Bitmap b, int width, int height, EResizeMode mode) {
+        Bitmap result = new Bitmap(width, height, b.storage.allocate(width * height));
+        resize(b, result, mode, b.executor);
+        return result;
+    }
+
+    /**
+     * Resizes the given bitmap to fill the whole destination bitmap, without allocating a new result.
+     * Uses the executor of the given bitmap, if one is set.
+     *
+     * @param b    The bitmap to resize.
+     * @param dst  The bitmap to write the resized pixels to. Must not share pixels with <b>b</b>.
+     * @param mode How to sample the pixels.
+     */
+    public static void resize(Bitmap b, Bitmap dst, EResizeMode mode) {
+        resize(b, dst, mode, b.executor);
+    }
+
+    /**
+     * Resizes the given bitmap to fill the whole destination bitmap, without allocating a new result.
+     *
+     * @param b        The bitmap to resize.
+     * @param dst      The bitmap to write the resized pixels to. Must not share pixels with <b>b</b>.
+     * @param mode     How to sample the pixels.
+     * @param executor Executor to process the rows of the result in parallel. Pass null to resize sequentially.
+     */
+    public static void resize(Bitmap b, final Bitmap dst, final EResizeMode mode, BandedExecutor executor) {
+        if (dst.width == 0 || dst.height == 0) return;
+        if (b.width == 0 || b.height == 0) throw new IllegalArgumentException("Cannot resize an empty bitmap");
+        dst.markDamaged(0, 0, dst.width, dst.height);
+
+        // The samplers need random access to the source rows
+        final Bitmap src = b.pixels != null ? b : copy(b, new ArrayPixelStorage(b.width * b.height));
+
+        if (executor == null) {
+            resizeRows(src, dst, mode, 0, dst.height);
+            return;
+        }
+
+        executor.execute(dst.width, dst.height, new BandedExecutor.Band() {
+            @Override
+            public void process(int y0, int y1) {
+                resizeRows(src, dst, mode, y0, y1);
+            }
+        });
+    }
+
+    private static void resizeRows(Bitmap src, Bitmap dst, EResizeMode mode, int y0, int y1) {
+        switch (mode) {
+            case NEAREST:
+                resizeNearest(src, dst, y0, y1);
+                break;
+            case BILINEAR:
+                resizeBilinear(src, dst, y0, y1);
+                break;
+            case AREA:
+                resizeArea(src, dst, y0, y1);
+                break;
+        }
+    }
+
+    /**
+     * Resizes using "nearest neighbour" approach. Source columns are found with integer stepping.
+     */
+    private static void resizeNearest(Bitmap src, Bitmap dst, int y0, int y1) {
+        int w = dst.width, sw = src.width;
+        int[] columns = new int[w];
+        for (int x = 0, xx = 0, err = 0; x < w; x++) {
+            columns[x] = xx;
+            xx += sw / w;
+            err += sw % w;
+            if (err >= w) {
+                xx++;
+                err -= w;
+            }
+        }
+
+        int[] sp = src.pixels;
+        int[] out = dst.pixels != null ? dst.pixels : new int[w];
+
+        for (int y = y0; y < y1; y++) {
+            int srow = src.offset + (int) ((long) y * src.height / dst.height) * src.stride;
+            int tp = dst.pixels != null ? dst.offset + y * dst.stride : 0;
+
+            for (int x = 0; x < w; x++)
+                out[tp + x] = sp[srow + columns[x]];
+
+            if (dst.pixels == null) dst.storage.write(dst.offset + y * dst.stride, out, 0, w);
+        }
+    }
+
+    /**
+     * Resizes using bilinear interpolation between the four nearest pixels. Positions are in 16.16 fixed point held
+     * in longs, so sources of any width fit, and the weights have 8 bits of precision.
+     */
+    private static void resizeBilinear(Bitmap src, Bitmap dst, int y0, int y1) {
+        int w = dst.width, sw = src.width;
+        int[] xa = new int[w], xb = new int[w], fx = new int[w];
+        for (int x = 0; x < w; x++) {
+            long pos = samplePosition(x, sw, w);
+            int i = (int) (pos >> 16);
+            xa[x] = clamp(i, sw);
+            xb[x] = clamp(i + 1, sw);
+            fx[x] = (int) (pos >> 8) & 0xFF;
+        }
+
+        int[] sp = src.pixels;
+        int[] out = dst.pixels != null ? dst.pixels : new int[w];
+
+        for (int y = y0; y < y1; y++) {
+            long pos = samplePosition(y, src.height, dst.height);
+            int i = (int) (pos >> 16);
+            int ra = src.offset + clamp(i, src.height) * src.stride;
+            int rb = src.offset + clamp(i + 1, src.height) * src.stride;
+            int fy = (int) (pos >> 8) & 0xFF;
+            int tp = dst.pixels != null ? dst.offset + y * dst.stride : 0;
+
+            for (int x = 0; x < w; x++) {
+                int top = lerpARGB(sp[ra + xa[x]], sp[ra + xb[x]], fx[x]);
+                int bottom = lerpARGB(sp[rb + xa[x]], sp[rb + xb[x]], fx[x]);
+                out[tp + x] = lerpARGB(top, bottom, fy);
+            }
+
+            if (dst.pixels == null) dst.storage.write(dst.offset + y * dst.stride, out, 0, w);
+        }
+    }
+
+    /**
+     * Resizes by averaging all source pixels that fall into each target pixel. Meant for downscaling; when upscaling,
+     * every target pixel covers a single source pixel.
+     */
+    private static void resizeArea(Bitmap src, Bitmap dst, int y0, int y1) {
+        int w = dst.width, sw = src.width, sh = src.height;
+        int[] sx0 = new int[w + 1];
+        for (int x = 0; x <= w; x++)
+            sx0[x] = (int) ((long) x * sw / w);
+
+        // Per-column channel sums over the source rows of the current target row
+        int[] sa = new int[sw], sr = new int[sw], sg = new int[sw], sb = new int[sw];
+        int[] sp = src.pixels;
+        int[] out = dst.pixels != null ? dst.pixels : new int[w];
+
+        for (int y = y0; y < y1; y++) {
+            int syStart = (int) ((long) y * sh / dst.height);
+            int syEnd = Math.max(syStart + 1, (int) ((long) (y + 1) * sh / dst.height));
+
+            Arrays.fill(sa, 0);
+            Arrays.fill(sr, 0);
+            Arrays.fill(sg, 0);
+            Arrays.fill(sb, 0);
+            for (int sy = syStart; sy < syEnd; sy++) {
+                for (int sx = 0, p = src.offset + sy * src.stride; sx < sw; sx++, p++) {
+                    int c = sp[p];
+                    sa[sx] += c >>> 24;
+                    sr[sx] += (c >> 16) & 0xFF;
+                    sg[sx] += (c >> 8) & 0xFF;
+                    sb[sx] += c & 0xFF;
+                }
+            }
+
+            int tp = dst.pixels != null ? dst.offset + y * dst.stride : 0;
+            int rows = syEnd - syStart;
+
+            for (int x = 0; x < w; x++) {
+                int xs = sx0[x], xe = Math.max(xs + 1, sx0[x + 1]);
+                long a = 0, r = 0, g = 0, b = 0;
+                for (int sx = xs; sx < xe; sx++) {
+                    a += sa[sx];
+                    r += sr[sx];
+                    g += sg[sx];
+                    b += sb[sx];
+                }
+
+                // Divide exactly; a rounded reciprocal loses precision for large boxes and can carry into the next channel
+                long count = (long) rows * (xe - xs), half = count / 2;
+                out[tp + x] = (int) ((a + half) / count) << 24
+                        | (int) ((r + half) / count) << 16
+                        | (int) ((g + half) / count) << 8
+                        | (int) ((b + half) / count);
+            }
+
+            if (dst.pixels == null) dst.storage.write(dst.offset + y * dst.stride, out, 0, w);
+        }
+    }
+
+    /**
+     * Position in the source (16.16 fixed point) that corresponds to the center of the given target pixel.
+     */
+    private static long samplePosition(int i, int sourceSize, int targetSize) {
+        return ((2L * i + 1) * sourceSize << 16) / (2L * targetSize) - 0x8000;
+    }
+
+    private static int clamp(int i, int size) {
+        return i < 0 ? 0 : (i >= size ? size - 1 : i);
+    }
+
+    /**
+     * Interpolates between two ARGB colors, two channels at a time.
+     *
+     * @param f Weight of the second color in range [0, 255].
+     */
+    private static int lerpARGB(int c1, int c2, int f) {
+        int f1 = 256 - f;
+        int rb = (((c1 & 0xFF00FF) * f1 + (c2 & 0xFF00FF) * f) >>> 8) & 0xFF00FF;
+        int ag = (((c1 >>> 8) & 0xFF00FF) * f1 + ((c2 >>> 8) & 0xFF00FF) * f) & 0xFF00FF00;
+        return ag | rb;
+    }
+
+    /**
+     * Creates a copy of the given bitmap.
+     *
+     * @param b Bitmap to create a copy from.
+     * @return Copy of the given bitmap.
+     */
+    public static Bitmap copy(Bitmap b) {
+        return copy(b, b.storage.allocate(b.width * b.height));
+    }
+
+    private static Bitmap copy(Bitmap b, PixelStorage storage) {
+        Bitmap result = new Bitmap(b.width, b.height, storage);
+        result.blit(b, 0, 0);
+        return result;
+    }
+
+    /**
+     * Rotates the bitmap around its center and outputs the result as a new object.
+     * Uses the executor of the given bitmap, if one is set.
+     *
+     * @param b     Bitmap to rotate.
+     * @param angle Angle of rotation in radians.
+     * @return An object of {@link com.jpixel.image.Bitmap} containing rotated pixels.
+     */
+    public static Bitmap rotate(Bitmap b, double angle) {
+        return rotate(b, angle, b.executor);
+    }
+
+    /**
+     * Rotates the bitmap around its center and outputs the result as a new object.
+     *
+     * @param b        Bitmap to rotate.
+     * @param angle    Angle of rotation in radians.
+     * @param executor Executor to process the rows of the result in parallel. Pass null to rotate sequentially.
+     * @return An object of {@link com.jpixel.image.Bitmap} containing rotated pixels.
+     */
+    public static Bitmap rotate(final Bitmap b, double angle, BandedExecutor executor) {
+        final double vx_x = MathUtils.rotate_x(angle, 1.0, 0.0);
+        final double vx_y = MathUtils.rotate_y(angle, 1.0, 0.0);
+        final double vy_x = MathUtils.rotate_x(angle, 0.0, 1.0);
+        final double vy_y = MathUtils.rotate_y(angle, 0.0, 1.0);
+
+        double ww = Math.abs(vx_x * b.width) + Math.abs(vx_y * b.height);
+        double hh = Math.abs(vx_y * b.width) + Math.abs(vy_y * b.height);
+
+        int w = (int) Math.round(ww);
+        int h = (int) Math.round(hh);
+
+        int cx = (int) ((w - b.width) / 2.0);
+        int cy = (int) ((h - b.height) / 2.0);
+
+        double nx0 = MathUtils.rotate_x(angle, -b.width / 2 - cx, -b.height / 2 - cy) + b.width / 2;
+        double ny0 = MathUtils.rotate_y(angle, -b.width / 2 - cx, -b.height / 2 - cy) + b.height / 2;
+
+        if (nx0 >= b.width) nx0--;
+        if (ny0 >= b.height) ny0--;
+
+        final Bitmap result = new Bitmap(w, h, b.storage.allocate(w * h));
+
+        if (executor == null) {
+            rotateRows(b, result, nx0, ny0, vx_x, vx_y, vy_x, vy_y, 0, h);
+            return result;
+        }
+
+        final double fx0 = nx0, fy0 = ny0;
+        executor.execute(w, h, new BandedExecutor.Band() {
+            @Override
+            public void process(int y0, int y1) {
+                rotateRows(b, result, fx0, fy0, vx_x, vx_y, vy_x, vy_y, y0, y1);
+            }
+        });
+
+        return result;
+    }
+
+    private static void rotateRows(Bitmap b, Bitmap result, double nx0, double ny0,
+                                   double vx_x, double vx_y, double vy_x, double vy_y, int y0, int y1) {
+        int w = result.width;
+        boolean arrays = b.pixels != null && result.pixels != null;
+
+        for (int y = y0; y < y1; y++) {
+            double pos2_x = nx0 + (y * vy_x);
+            double pos2_y = ny0 + (y * vy_y);
+            int tp = result.offset + y * result.stride;
+            for (int x = 0; x < w; x++) {
+                int xx = (int) (pos2_x + (x * vx_x));
+                int yy = (int) (pos2_y + (x * vx_y));
+                if (xx < 0 || xx >= b.width || yy < 0 || yy >= b.height) continue;
+                if (arrays)
+                    result.pixels[tp + x] = b.pixels[b.offset + xx + yy * b.stride];
+                else
+                    result.storage.set(tp + x, b.storage.get(b.offset + xx + yy * b.stride));
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,292 @@
+package com.jpixel.image;
+
+import java.util.Arrays;
+
+/**
+ * A font whose glyphs are sprites of a {@link SpriteSheet}. The glyphs are compiled (see {@link CompiledSprite}) so
+ * that their transparent pixels are skipped when text is drawn.
+ * <p>
+ * Each glyph has an advance (the distance to the next glyph) and each pair of characters can have a kerning
+ * adjustment. By default every glyph advances by the width of a sprite; {@link #computeAdvances(int)} measures the
+ * glyphs for proportional fonts. Characters that are not in the font are skipped like spaces.
+ * <p>
+ * For text that does not change every frame, use a {@link TextRun}, which keeps its layout between frames.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class BitmapFont {
+    private final SpriteSheet sheet;
+    private final CompiledSprite[] glyphs;
+
+    /**
+     * Glyph index of each character, or -1 if the font does not have the character.
+     */
+    private final int[] glyphIndex;
+    private final int[] advances;
+    private int lineHeight, spaceAdvance;
+
+    /**
+     * Kerning adjustments in an open addressing table. The key of a pair is <code>(first &lt;&lt; 16) | second</code>;
+     * unused slots have the key -1.
+     */
+    private int[] kernKeys = emptyKeys(16), kernValues = new int[16];
+    private int kernCount;
+
+    /**
+     * Initializes the font.
+     *
+     * @param sheet      Sprite sheet that contains the glyphs, row by row.
+     * @param characters The characters of the glyphs, in the same order as the glyphs are in the sheet.
+     */
+    public BitmapFont(SpriteSheet sheet, String characters) {
+        int count = characters.length();
+        if (count > sheet.columns * sheet.rows)
+            throw new IllegalArgumentException("The sheet has only " + sheet.columns * sheet.rows + " glyphs for " + count + " characters");
+
+        this.sheet = sheet;
+        glyphs = new CompiledSprite[count];
+        advances = new int[count];
+        lineHeight = sheet.spriteHeight;
+        spaceAdvance = sheet.spriteWidth;
+
+        int maxChar = 0;
+        for (int i = 0; i < count; i++)
+            maxChar = Math.max(maxChar, characters.charAt(i));
+        glyphIndex = new int[maxChar + 1];
+        Arrays.fill(glyphIndex, -1);
+
+        for (int i = 0; i < count; i++) {
+            glyphIndex[characters.charAt(i)] = i;
+            glyphs[i] = sheet.getCompiledSprite(i % sheet.columns, i / sheet.columns);
+            advances[i] = sheet.spriteWidth;
+        }
+    }
+
+    /**
+     * Initializes the font for a sheet whose glyphs are consecutive characters, e.g. ASCII from the space onwards.
+     *
+     * @param sheet Sprite sheet that contains the glyphs, row by row.
+     * @param first The character of the first glyph.
+     */
+    public BitmapFont(SpriteSheet sheet, char first) {
+        this(sheet, consecutive(first, sheet.columns * sheet.rows));
+    }
+
+    private static String consecutive(char first, int count) {
+        StringBuilder sb = new StringBuilder(count);
+        for (int i = 0; i < count && first + i <= Character.MAX_VALUE; i++)
+            sb.append((char) (first + i));
+        return sb.toString();
+    }
+
+    /**
+     * Sets the advance of every glyph to the width of its opaque pixels plus the given spacing. Glyphs without
+     * opaque pixels advance by half of the sprite width.
+     *
+     * @param spacing Extra pixels between glyphs.
+     */
+    public void computeAdvances(int spacing) {
+        for (int i = 0; i < glyphs.length; i++) {
+            CompiledSprite g = glyphs[i];
+            int right = 0;
+            for (int r = 0; r < g.height; r++) {
+                int last = g.rowRuns[r + 1] - 2;
+                if (last >= g.rowRuns[r])
+                    right = Math.max(right, g.runs[last] + g.runs[last + 1]);
+            }
+            advances[i] = (right == 0 ? sheet.spriteWidth / 2 : right) + spacing;
+        }
+        spaceAdvance = sheet.spriteWidth / 2 + spacing;
+    }
+
+    /**
+     * Sets the advance of a single glyph. Existing {@link TextRun}s keep their layout until they are laid out again.
+     *
+     * @param c       Character of the glyph.
+     * @param advance Distance to the next glyph.
+     */
+    public void setAdvance(char c, int advance) {
+        int g = getGlyph(c);
+        if (g < 0) throw new IllegalArgumentException("The font has no glyph for '" + c + "'");
+        advances[g] = advance;
+    }
+
+    /**
+     * Gets the distance from a character to the next one, not including kerning.
+     *
+     * @param c A character.
+     * @return Advance of the character.
+     */
+    public int getAdvance(char c) {
+        int g = getGlyph(c);
+        return g < 0 ? spaceAdvance : advances[g];
+    }
+
+    /**
+     * Sets the kerning adjustment of a pair of characters. Existing {@link TextRun}s keep their layout until they are
+     * laid out again.
+     *
+     * @param first   Character on the left.
+     * @param second  Character on the right.
+     * @param kerning Amount of pixels to add to the advance of the first character when it is followed by the second.
+     */
+    public void setKerning(char first, char second, int kerning) {
+        int key = first << 16 | second;
+        if (key == -1) throw new IllegalArgumentException("Cannot kern \\uFFFF with itself");
+
+        if ((kernCount + 1) * 2 > kernKeys.length) {
+            int[] keys = kernKeys, values = kernValues;
+            kernKeys = emptyKeys(keys.length * 2);
+            kernValues = new int[keys.length * 2];
+            kernCount = 0;
+            for (int i = 0; i < keys.length; i++)
+                if (keys[i] != -1) putKerning(keys[i], values[i]);
+        }
+        putKerning(key, kerning);
+    }
+
+    /**
+     * Gets the kerning adjustment of a pair of characters.
+     *
+     * @param first  Character on the left.
+     * @param second Character on the right.
+     * @return Amount of pixels to add to the advance of the first character. 0 if the pair is not kerned.
+     */
+    public int getKerning(char first, char second) {
+        if (kernCount == 0) return 0;
+
+        int key = first << 16 | second;
+        int mask = kernKeys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (kernKeys[i] == key) return kernValues[i];
+            if (kernKeys[i] == -1) return 0;
+        }
+    }
+
+    /**
+     * Gets the distance between the tops of two lines.
+     *
+     * @return Height of a line.
+     */
+    public int getLineHeight() {
+        return lineHeight;
+    }
+
+    /**
+     * Sets the distance between the tops of two lines. Defaults to the height of a sprite. Existing {@link TextRun}s
+     * keep their layout until they are laid out again.
+     *
+     * @param lineHeight Height of a line.
+     */
+    public void setLineHeight(int lineHeight) {
+        this.lineHeight = lineHeight;
+    }
+
+    /**
+     * Gets the sprite sheet of the glyphs.
+     *
+     * @return The sprite sheet of the glyphs.
+     */
+    public SpriteSheet getSpriteSheet() {
+        return sheet;
+    }
+
+    /**
+     * Draws text without keeping its layout. Lines are separated by '\n'.
+     *
+     * @param target Bitmap to draw onto.
+     * @param text   Text to draw.
+     * @param x      X coordinate of the top-left corner of the text.
+     * @param y      Y coordinate of the top-left corner of the text.
+     */
+    public void draw(Bitmap target, CharSequence text, int x, int y) {
+        int penX = x, penY = y;
+        char prev = '\n';
+
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                penX = x;
+                penY += lineHeight;
+            } else {
+                if (prev != '\n') penX += getKerning(prev, c);
+                int g = getGlyph(c);
+                if (g >= 0) target.blitAlpha(glyphs[g], penX, penY);
+                penX += g < 0 ? spaceAdvance : advances[g];
+            }
+            prev = c;
+        }
+    }
+
+    /**
+     * Measures the width of text, i.e. the width of its longest line.
+     *
+     * @param text Text to measure.
+     * @return Width of the text in pixels.
+     */
+    public int measure(CharSequence text) {
+        int width = 0, penX = 0;
+        char prev = '\n';
+
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                penX = 0;
+            } else {
+                if (prev != '\n') penX += getKerning(prev, c);
+                penX += getAdvance(c);
+                width = Math.max(width, penX);
+            }
+            prev = c;
+        }
+        return width;
+    }
+
+    /**
+     * Gets the glyph index of a character.
+     *
+     * @param c A character.
+     * @return Index of the glyph, or -1 if the font does not have the character.
+     */
+    int getGlyph(char c) {
+        return c < glyphIndex.length ? glyphIndex[c] : -1;
+    }
+
+    CompiledSprite getCompiledGlyph(int g) {
+        return glyphs[g];
+    }
+
+    int getGlyphAdvance(int g) {
+        return g < 0 ? spaceAdvance : advances[g];
+    }
+
+    private void putKerning(int key, int value) {
+        int mask = kernKeys.length - 1;
+        int i = hash(key) & mask;
+        while (kernKeys[i] != -1 && kernKeys[i] != key)
+            i = (i + 1) & mask;
+        if (kernKeys[i] == -1) kernCount++;
+        kernKeys[i] = key;
+        kernValues[i] = value;
+    }
+
+    private static int hash(int key) {
+        return key * 0x9E3779B9 >>> 7;
+    }
+
+    private static int[] emptyKeys(int size) {
+        int[] keys = new int[size];
+        Arrays.fill(keys, -1);
+        return keys;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[BITMAPFONT] ");
+        sb.append("Glyphs: ").append(glyphs.length).append(" Line height: ").append(lineHeight);
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
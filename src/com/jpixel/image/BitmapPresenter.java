@@ -0,0 +1,232 @@
+package com.jpixel.image;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Presents frames rendered into bitmaps without copying the pixels. Each buffer is a {@link Bitmap} whose pixels
+ * are shared with a {@link BufferedImage} (see {@link ImageLoader#wrapAsImage(Bitmap, boolean)}), so the image can
+ * be drawn directly once the frame is done.
+ * <p>
+ * The rendering thread calls {@link #beginFrame()}, draws into the returned bitmap and calls {@link #endFrame()}.
+ * The display thread calls {@link #show(Graphics, int, int, int, int)} (or {@link #swap()}), which picks up the
+ * newest finished frame. The rendering thread never writes to the buffer being displayed.
+ * <ul>
+ * <li>With three buffers, rendering never waits. If a finished frame has not been shown before the next one is
+ * finished, it is dropped.</li>
+ * <li>With two buffers, {@link #beginFrame()} waits until the previous frame has been shown.</li>
+ * </ul>
+ * Only one thread should display frames. The presenter works without a display as well:
+ * {@link #renderOffscreen()} copies the newest frame into an offscreen image.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class BitmapPresenter {
+    private final int width, height;
+    private final Bitmap[] buffers;
+    private final BufferedImage[] images;
+
+    /**
+     * Indices of the buffer being displayed, the newest finished frame and the frame being drawn (-1 if none).
+     */
+    private int front, ready = -1, drawing = -1;
+
+    private long framesPresented, framesShown, framesDropped;
+    private BufferedImage offscreen;
+
+    /**
+     * Initializes a triple-buffered presenter.
+     *
+     * @param width  Width of the frames.
+     * @param height Height of the frames.
+     */
+    public BitmapPresenter(int width, int height) {
+        this(width, height, 3);
+    }
+
+    /**
+     * Initializes the presenter.
+     *
+     * @param width       Width of the frames.
+     * @param height      Height of the frames.
+     * @param bufferCount Amount of buffers, either 2 or 3.
+     */
+    public BitmapPresenter(int width, int height, int bufferCount) {
+        if (bufferCount != 2 && bufferCount != 3) throw new IllegalArgumentException("Buffer count must be 2 or 3");
+        this.width = width;
+        this.height = height;
+        buffers = new Bitmap[bufferCount];
+        images = new BufferedImage[bufferCount];
+        for (int i = 0; i < bufferCount; i++) {
+            buffers[i] = new Bitmap(width, height);
+            images[i] = ImageLoader.wrapAsImage(buffers[i], false);
+        }
+    }
+
+    /**
+     * Begins a new frame. The contents of the returned bitmap are left from an earlier frame.
+     *
+     * @return The bitmap to draw the frame into.
+     */
+    public synchronized Bitmap beginFrame() {
+        if (drawing != -1) throw new IllegalStateException("The previous frame has not been ended");
+
+        if (buffers.length == 2) {
+            while (ready != -1) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        for (int i = 0; i < buffers.length; i++) {
+            if (i != front && i != ready) {
+                drawing = i;
+                return buffers[i];
+            }
+        }
+
+        // Only reached with two buffers when interrupted while waiting: reuse the pending frame
+        framesDropped++;
+        drawing = ready;
+        ready = -1;
+        return buffers[drawing];
+    }
+
+    /**
+     * Ends the current frame, making it the newest frame to be shown.
+     */
+    public synchronized void endFrame() {
+        if (drawing == -1) throw new IllegalStateException("No frame has been begun");
+        if (ready != -1) framesDropped++;
+        ready = drawing;
+        drawing = -1;
+        framesPresented++;
+    }
+
+    /**
+     * Makes the newest finished frame the displayed one. The returned image is not changed until the next call.
+     *
+     * @return The image of the displayed frame.
+     */
+    public synchronized BufferedImage swap() {
+        if (ready != -1) {
+            front = ready;
+            ready = -1;
+            framesShown++;
+            notifyAll();
+        }
+        return images[front];
+    }
+
+    /**
+     * Draws the newest finished frame at its original size.
+     *
+     * @param g Graphics to draw with.
+     * @param x Position to draw to (X coordinate).
+     * @param y Position to draw to (Y coordinate).
+     */
+    public void show(Graphics g, int x, int y) {
+        g.drawImage(swap(), x, y, null);
+    }
+
+    /**
+     * Draws the newest finished frame scaled to the given area.
+     *
+     * @param g Graphics to draw with.
+     * @param x Position to draw to (X coordinate).
+     * @param y Position to draw to (Y coordinate).
+     * @param w Width of the area.
+     * @param h Height of the area.
+     */
+    public void show(Graphics g, int x, int y, int w, int h) {
+        g.drawImage(swap(), x, y, w, h, null);
+    }
+
+    /**
+     * Copies the newest finished frame into an offscreen image. This works without a display.
+     *
+     * @return The offscreen image. The same image is reused by every call.
+     */
+    public BufferedImage renderOffscreen() {
+        BufferedImage frame = swap();
+        if (offscreen == null)
+            offscreen = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = offscreen.createGraphics();
+        try {
+            g.drawImage(frame, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return offscreen;
+    }
+
+    /**
+     * Gets the width of the frames.
+     *
+     * @return Width of the frames.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the frames.
+     *
+     * @return Height of the frames.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the amount of buffers.
+     *
+     * @return Amount of buffers.
+     */
+    public int getBufferCount() {
+        return buffers.length;
+    }
+
+    /**
+     * Gets the amount of frames that have been ended.
+     *
+     * @return Amount of finished frames.
+     */
+    public synchronized long getFramesPresented() {
+        return framesPresented;
+    }
+
+    /**
+     * Gets the amount of frames that have been shown.
+     *
+     * @return Amount of shown frames.
+     */
+    public synchronized long getFramesShown() {
+        return framesShown;
+    }
+
+    /**
+     * Gets the amount of finished frames that were replaced by a newer frame before being shown.
+     *
+     * @return Amount of dropped frames.
+     */
+    public synchronized long getFramesDropped() {
+        return framesDropped;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[PRESENTER] ");
+        sb.append("Width: ").append(width).append(" Height: ").append(height).append(" Buffers: ").append(buffers.length);
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
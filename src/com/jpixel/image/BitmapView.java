@@ -0,0 +1,114 @@
+package com.jpixel.image;
+
+/**
+ * A bitmap that covers a rectangular area of another bitmap. The view shares the pixel data with its parent,
+ * so creating a view copies no pixels and drawing on the view draws on the parent.
+ * <p>
+ * Views can be used everywhere a {@link Bitmap} is expected, including as both the source and the target of
+ * blit operations. Damage recorded on a view is also recorded on the parent, offset by the position of the view.
+ * The premultiplied alpha flag describes the shared pixel data, so views read and change the flag of the parent.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class BitmapView extends Bitmap {
+    protected final Bitmap parent;
+    protected final int x, y;
+    private final boolean forwardDamage;
+
+    /**
+     * Initializes the view.
+     *
+     * @param parent Bitmap that contains the area.
+     * @param x      X coordinate of the area in the parent.
+     * @param y      Y coordinate of the area in the parent.
+     * @param width  Width of the area.
+     * @param height Height of the area.
+     */
+    public BitmapView(Bitmap parent, int x, int y, int width, int height) {
+        this(parent, x, y, width, height, true);
+    }
+
+    /**
+     * Initializes the view.
+     *
+     * @param parent        Bitmap that contains the area.
+     * @param x             X coordinate of the area in the parent.
+     * @param y             Y coordinate of the area in the parent.
+     * @param width         Width of the area.
+     * @param height        Height of the area.
+     * @param forwardDamage If true, damage drawn on the view is recorded on the parent too.
+     */
+    BitmapView(Bitmap parent, int x, int y, int width, int height, boolean forwardDamage) {
+        super(width, height, parent.storage, parent.offset + checkArea(parent, x, y, width, height) + y * parent.stride, parent.stride);
+        this.parent = parent;
+        this.x = x;
+        this.y = y;
+        this.forwardDamage = forwardDamage;
+    }
+
+    private static int checkArea(Bitmap parent, int x, int y, int width, int height) {
+        if (x < 0 || y < 0 || width < 0 || height < 0 || width > parent.width - x || height > parent.height - y)
+            throw new IllegalArgumentException("Area " + width + "x" + height + " at (" + x + ", " + y + ") is outside of " + parent);
+        return x;
+    }
+
+    /**
+     * Gets the bitmap this view was created from.
+     *
+     * @return The parent bitmap.
+     */
+    public Bitmap getParent() {
+        return parent;
+    }
+
+    /**
+     * Gets the X coordinate of the view in its parent.
+     *
+     * @return X coordinate of the view.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the Y coordinate of the view in its parent.
+     *
+     * @return Y coordinate of the view.
+     */
+    public int getY() {
+        return y;
+    }
+
+    @Override
+    public void setPremultiplied(boolean premultiplied) {
+        parent.setPremultiplied(premultiplied);
+    }
+
+    @Override
+    public boolean isPremultiplied() {
+        return parent.isPremultiplied();
+    }
+
+    @Override
+    public void premultiply() {
+        parent.premultiply();
+    }
+
+    @Override
+    protected void markDamaged(int x, int y, int w, int h) {
+        super.markDamaged(x, y, w, h);
+        if (forwardDamage)
+            parent.markDamaged(this.x + x, this.y + y, w, h);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[BITMAPVIEW] ");
+        sb.append(width).append("x").append(height);
+        sb.append(" At: ").append(x).append(",").append(y);
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,243 @@
+package com.jpixel.image;
+
+import java.awt.Rectangle;
+
+/**
+ * Collects the areas of a bitmap that have been drawn to (damaged) into a small set of dirty rectangles.
+ * Overlapping and touching areas are merged together. When the amount of rectangles exceeds the limit,
+ * the two rectangles that waste the least area when merged are combined.
+ * <p>
+ * Attach the tracker to a bitmap with {@link Bitmap#setDamageTracker(DamageTracker)}. After presenting the
+ * dirty rectangles, call {@link #reset()} to start tracking the next frame.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class DamageTracker {
+    /**
+     * Default maximum amount of dirty rectangles.
+     */
+    public static final int DEFAULT_MAX_RECTANGLES = 16;
+
+    private final int maxRects;
+
+    /**
+     * Rectangles stored as (x0, y0, x1, y1), where the second corner is exclusive.
+     */
+    private final int[] rects;
+    private int count;
+
+    /**
+     * Initializes the tracker with the default maximum amount of rectangles.
+     */
+    public DamageTracker() {
+        this(DEFAULT_MAX_RECTANGLES);
+    }
+
+    /**
+     * Initializes the tracker.
+     *
+     * @param maxRects Maximum amount of dirty rectangles to keep. Must be at least 1.
+     */
+    public DamageTracker(int maxRects) {
+        if (maxRects < 1) throw new IllegalArgumentException("At least one rectangle is required");
+        this.maxRects = maxRects;
+        rects = new int[(maxRects + 1) * 4];
+    }
+
+    /**
+     * Marks an area as damaged.
+     *
+     * @param x X coordinate of the area.
+     * @param y Y coordinate of the area.
+     * @param w Width of the area.
+     * @param h Height of the area.
+     */
+    public void add(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+
+        int x0 = x, y0 = y, x1 = x + w, y1 = y + h;
+
+        for (int i = 0; i < count; i++) {
+            int p = i * 4;
+            if (rects[p] <= x0 && rects[p + 1] <= y0 && rects[p + 2] >= x1 && rects[p + 3] >= y1)
+                return;
+        }
+
+        insert(x0, y0, x1, y1);
+
+        if (count > maxRects)
+            mergeCheapestPair();
+    }
+
+    /**
+     * Adds a rectangle, first absorbing every rectangle that overlaps or touches it.
+     */
+    private void insert(int x0, int y0, int x1, int y1) {
+        for (int i = 0; i < count; ) {
+            int p = i * 4;
+            if (rects[p] <= x1 && rects[p + 2] >= x0 && rects[p + 1] <= y1 && rects[p + 3] >= y0) {
+                x0 = Math.min(x0, rects[p]);
+                y0 = Math.min(y0, rects[p + 1]);
+                x1 = Math.max(x1, rects[p + 2]);
+                y1 = Math.max(y1, rects[p + 3]);
+                remove(i);
+                i = 0;
+            } else {
+                i++;
+            }
+        }
+
+        int p = count * 4;
+        rects[p] = x0;
+        rects[p + 1] = y0;
+        rects[p + 2] = x1;
+        rects[p + 3] = y1;
+        count++;
+    }
+
+    /**
+     * Removes all dirty rectangles.
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Checks if no area has been damaged since the last reset.
+     *
+     * @return True, if there are no dirty rectangles.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Gets the amount of dirty rectangles.
+     *
+     * @return Amount of dirty rectangles.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the X coordinate of a dirty rectangle.
+     *
+     * @param i Index of the rectangle.
+     * @return X coordinate of the rectangle.
+     */
+    public int getX(int i) {
+        return rects[checkIndex(i) * 4];
+    }
+
+    /**
+     * Gets the Y coordinate of a dirty rectangle.
+     *
+     * @param i Index of the rectangle.
+     * @return Y coordinate of the rectangle.
+     */
+    public int getY(int i) {
+        return rects[checkIndex(i) * 4 + 1];
+    }
+
+    /**
+     * Gets the width of a dirty rectangle.
+     *
+     * @param i Index of the rectangle.
+     * @return Width of the rectangle.
+     */
+    public int getWidth(int i) {
+        int p = checkIndex(i) * 4;
+        return rects[p + 2] - rects[p];
+    }
+
+    /**
+     * Gets the height of a dirty rectangle.
+     *
+     * @param i Index of the rectangle.
+     * @return Height of the rectangle.
+     */
+    public int getHeight(int i) {
+        int p = checkIndex(i) * 4;
+        return rects[p + 3] - rects[p + 1];
+    }
+
+    /**
+     * Gets the total amount of pixels covered by the dirty rectangles.
+     *
+     * @return Amount of dirty pixels.
+     */
+    public long getArea() {
+        long area = 0;
+        for (int i = 0; i < count; i++)
+            area += area(i * 4);
+        return area;
+    }
+
+    /**
+     * Creates a copy of the dirty rectangles.
+     *
+     * @return An array of the dirty rectangles.
+     */
+    public Rectangle[] toRectangles() {
+        Rectangle[] result = new Rectangle[count];
+        for (int i = 0; i < count; i++)
+            result[i] = new Rectangle(getX(i), getY(i), getWidth(i), getHeight(i));
+        return result;
+    }
+
+    private void mergeCheapestPair() {
+        int bestA = 0, bestB = 1;
+        long bestWaste = Long.MAX_VALUE;
+
+        for (int a = 0; a < count; a++) {
+            int pa = a * 4;
+            for (int b = a + 1; b < count; b++) {
+                int pb = b * 4;
+                long union = (long) (Math.max(rects[pa + 2], rects[pb + 2]) - Math.min(rects[pa], rects[pb]))
+                        * (Math.max(rects[pa + 3], rects[pb + 3]) - Math.min(rects[pa + 1], rects[pb + 1]));
+                long waste = union - area(pa) - area(pb);
+                if (waste < bestWaste) {
+                    bestWaste = waste;
+                    bestA = a;
+                    bestB = b;
+                }
+            }
+        }
+
+        int pa = bestA * 4, pb = bestB * 4;
+        int x0 = Math.min(rects[pa], rects[pb]);
+        int y0 = Math.min(rects[pa + 1], rects[pb + 1]);
+        int x1 = Math.max(rects[pa + 2], rects[pb + 2]);
+        int y1 = Math.max(rects[pa + 3], rects[pb + 3]);
+
+        // The merged rectangle may now overlap others, so insert it again to absorb them
+        remove(bestB);
+        remove(bestA);
+        insert(x0, y0, x1, y1);
+    }
+
+    private long area(int p) {
+        return (long) (rects[p + 2] - rects[p]) * (rects[p + 3] - rects[p + 1]);
+    }
+
+    private void remove(int i) {
+        count--;
+        System.arraycopy(rects, count * 4, rects, i * 4, 4);
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException("Rectangle index: " + i + ", count: " + count);
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[DAMAGE] ");
+        sb.append("Rectangles: ").append(count).append(" Area: ").append(getArea());
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.jpixel.image;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Pixel storage backed by a direct (off-heap) buffer. The pixels are stored as native-order integers,
+ * so the buffer can be handed to native code, channels or sockets without copying.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class DirectPixelStorage extends PixelStorage {
+    private final ByteBuffer bytes;
+    private final IntBuffer pixels;
+
+    /**
+     * Allocates a new direct buffer for the pixels.
+     *
+     * @param size Amount of pixels to store.
+     */
+    public DirectPixelStorage(int size) {
+        this(ByteBuffer.allocateDirect(size * 4));
+    }
+
+    /**
+     * Initializes the storage around an existing buffer. The buffer is not copied, and neither its position nor
+     * its byte order are changed. The pixels are stored as native-order integers from the current position of the
+     * buffer up to its limit.
+     *
+     * @param bytes Buffer to store the pixels in.
+     */
+    public DirectPixelStorage(ByteBuffer bytes) {
+        this.bytes = bytes.slice().order(ByteOrder.nativeOrder());
+        pixels = this.bytes.asIntBuffer();
+    }
+
+    @Override
+    public int size() {
+        return pixels.capacity();
+    }
+
+    @Override
+    public int get(int index) {
+        return pixels.get(index);
+    }
+
+    @Override
+    public void set(int index, int color) {
+        pixels.put(index, color);
+    }
+
+    @Override
+    public void fill(int index, int length, int color) {
+        for (int i = index, end = index + length; i < end; i++)
+            pixels.put(i, color);
+    }
+
+    @Override
+    public void read(int index, int[] dst, int dstOffset, int length) {
+        IntBuffer src = pixels.duplicate();
+        src.position(index);
+        src.get(dst, dstOffset, length);
+    }
+
+    @Override
+    public void write(int index, int[] src, int srcOffset, int length) {
+        IntBuffer dst = pixels.duplicate();
+        dst.position(index);
+        dst.put(src, srcOffset, length);
+    }
+
+    @Override
+    public void copy(PixelStorage src, int srcIndex, int index, int length) {
+        if (!(src instanceof DirectPixelStorage) || (src == this && srcIndex < index + length && index < srcIndex + length)) {
+            super.copy(src, srcIndex, index, length);
+            return;
+        }
+
+        IntBuffer from = ((DirectPixelStorage) src).pixels.duplicate();
+        from.limit(srcIndex + length);
+        from.position(srcIndex);
+
+        IntBuffer to = pixels.duplicate();
+        to.position(index);
+        to.put(from);
+    }
+
+    @Override
+    public PixelStorage allocate(int size) {
+        return new DirectPixelStorage(size);
+    }
+
+    /**
+     * Gets a view of the pixel data as bytes in native order. The view shares the memory with this storage,
+     * so no pixels are copied.
+     *
+     * @return Byte view of the pixels.
+     */
+    public ByteBuffer getByteBuffer() {
+        return bytes.duplicate().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Gets a view of the pixel data. The view shares the memory with this storage, so no pixels are copied.
+     *
+     * @return Integer view of the pixels.
+     */
+    public IntBuffer getIntBuffer() {
+        return pixels.duplicate();
+    }
+}
@@ -0,0 +1,596 @@
+package com.jpixel.image;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.jpixel.color.ColorMath.EBlendMode;
+
+/**
+ * Records fills and blits so that they can be reordered and batched before they are drawn onto a bitmap.
+ * <p>
+ * Commands are stored in a flat integer array. Each command has a layer (see {@link #setLayer(int)}); layers are
+ * drawn in increasing order, and commands of the same layer are drawn in the order they were recorded, so the
+ * result is the same as drawing directly. Adjacent fills of the same color are merged into one. When sorting is
+ * enabled, the commands of a layer are grouped by the bitmap they draw, fills first, so that the same source pixels
+ * are reused while they are still in the cache. Commands that draw the same bitmap (or fills) keep their recorded
+ * order, but overlapping commands may then be drawn in a different order, so sorting should only be enabled when
+ * the draws of a layer do not overlap or their order does not matter.
+ * <p>
+ * {@link #execute(Bitmap)} can be called many times to replay the same frame, for example in benchmarks.
+ * {@link #flush(Bitmap)} draws the commands and removes them from the buffer. The buffer reuses its arrays, so
+ * recording a frame does not allocate once the buffer has grown to its size.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class DrawCommandBuffer {
+    /**
+     * Maximum layer of a command.
+     */
+    public static final int MAX_LAYER = 0x7FFF;
+
+    private static final int MAX_COMMANDS = 1 << 24;
+    private static final int MAX_SOURCES = (1 << 24) - 1;
+
+    static final int OP_CLEAR = 0, OP_FILL = 1, OP_BLIT = 2;
+    private static final EBlendMode[] MODES = EBlendMode.values();
+
+    /**
+     * Fields of a command. The operation of a blit is OP_BLIT plus the ordinal of its blend mode.
+     */
+    static final int OP = 0, LAYER = 1, SOURCE = 2, X = 3, Y = 4, XB = 5, YB = 6, W = 7, H = 8, COLOR = 9;
+    static final int COMMAND_SIZE = 10;
+
+    private int[] commands = new int[64 * COMMAND_SIZE];
+    private int count;
+
+    private final ArrayList<Bitmap> sources = new ArrayList<Bitmap>();
+    private final IdentityHashMap<Bitmap, Integer> sourceIds = new IdentityHashMap<Bitmap, Integer>();
+
+    /**
+     * Commands in the order they are drawn, after sorting and merging. Rebuilt when commands are added.
+     */
+    private int[] plan = new int[0];
+    private long[] keys = new long[0];
+    private int planCount;
+    private boolean planValid;
+
+    private int layer;
+    private boolean sorting;
+
+    /**
+     * Occlusion culling state. The plan is culled for a target of the given size; for each row of the target, the
+     * coverage is a single range of columns [start, end) that is overwritten by later commands.
+     */
+    private boolean culling;
+    private int planWidth = -1, planHeight = -1;
+    private int[] coverStart = new int[0], coverEnd = new int[0];
+    private int culledCommands;
+    private long culledPixels;
+
+    /**
+     * Sets the layer of the commands recorded next.
+     *
+     * @param layer Layer in range [0, {@link #MAX_LAYER}]. Higher layers are drawn on top.
+     */
+    public void setLayer(int layer) {
+        if (layer < 0 || layer > MAX_LAYER) throw new IllegalArgumentException("Layer must be in range [0, " + MAX_LAYER + "]");
+        this.layer = layer;
+    }
+
+    /**
+     * Gets the layer of the commands recorded next.
+     *
+     * @return The current layer.
+     */
+    public int getLayer() {
+        return layer;
+    }
+
+    /**
+     * Sets whether commands of the same layer are grouped by their source bitmap. If disabled, the commands are drawn
+     * in the order of their layers and then in the order they were recorded. Disabled by default.
+     *
+     * @param sorting True, to group commands by source bitmap.
+     */
+    public void setSorting(boolean sorting) {
+        if (this.sorting != sorting) planValid = false;
+        this.sorting = sorting;
+    }
+
+    /**
+     * Checks whether commands of the same layer are grouped by their source bitmap.
+     *
+     * @return True, if commands are grouped by source bitmap.
+     */
+    public boolean isSorting() {
+        return sorting;
+    }
+
+    /**
+     * Sets whether draws hidden by later opaque draws are skipped. Clears, fills and {@link EBlendMode#REPLACE} blits
+     * are opaque, since they overwrite every pixel they cover. Any draw, or any edge rows and columns of a draw, that
+     * the opaque draws after it overwrite are removed from the plan. The amount of skipped pixels is reported by
+     * {@link #getCulledPixels()}.
+     *
+     * @param culling True, to skip hidden draws.
+     */
+    public void setOcclusionCulling(boolean culling) {
+        if (this.culling != culling) planValid = false;
+        this.culling = culling;
+    }
+
+    /**
+     * Checks whether draws hidden by later opaque draws are skipped.
+     *
+     * @return True, if hidden draws are skipped.
+     */
+    public boolean isOcclusionCulling() {
+        return culling;
+    }
+
+    /**
+     * Gets the amount of commands that were skipped entirely by occlusion culling when the commands were last
+     * planned.
+     *
+     * @return Amount of skipped commands.
+     */
+    public int getCulledCommands() {
+        return culledCommands;
+    }
+
+    /**
+     * Gets the amount of pixels that occlusion culling saved from being drawn when the commands were last planned,
+     * i.e. the amount of overdraw avoided each time the commands are executed.
+     *
+     * @return Amount of skipped pixels.
+     */
+    public long getCulledPixels() {
+        return culledPixels;
+    }
+
+    /**
+     * Records clearing the whole target with the given color. See {@link Bitmap#clear(int)}.
+     *
+     * @param color Color to fill the target with.
+     */
+    public void clear(int color) {
+        add(OP_CLEAR, -1, 0, 0, 0, 0, 0, 0, color);
+    }
+
+    /**
+     * Records filling an area with the given color. See {@link Bitmap#fill(int, int, int, int, int)}.
+     *
+     * @param color Color to fill the area with.
+     * @param x     X coordinate of the area. Can be negative.
+     * @param y     Y coordinate of the area. Can be negative.
+     * @param w     Width of the area.
+     * @param h     Height of the area.
+     */
+    public void fill(int color, int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return;
+        add(OP_FILL, -1, x, y, 0, 0, w, h, color);
+    }
+
+    /**
+     * Records copying all of the given bitmap. See {@link Bitmap#blit(Bitmap, int, int)}.
+     *
+     * @param b      Bitmap to copy.
+     * @param xStart X coordinate position on the target to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on the target to which begin copying. Can be negative.
+     */
+    public void blit(Bitmap b, int xStart, int yStart) {
+        blitBlend(b, xStart, yStart, 0, 0, b.width, b.height, EBlendMode.REPLACE);
+    }
+
+    /**
+     * Records copying part of the given bitmap. See {@link Bitmap#blit(Bitmap, int, int, int, int, int, int)}.
+     *
+     * @param b      Bitmap to copy.
+     * @param xStart X coordinate position on the target to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on the target to which begin copying. Can be negative.
+     * @param xb     X coordinate position on the given bitmap from which begin copying.
+     * @param yb     Y coordinate position on the given bitmap from which begin copying.
+     * @param w      Width of the area to copy.
+     * @param h      Height of the area to copy.
+     */
+    public void blit(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
+        blitBlend(b, xStart, yStart, xb, yb, w, h, EBlendMode.REPLACE);
+    }
+
+    /**
+     * Records copying all of the given bitmap except for the alpha colour 0x00000000. See
+     * {@link Bitmap#blitAlpha(Bitmap, int, int)}.
+     *
+     * @param b      Bitmap to copy.
+     * @param xStart X coordinate position on the target to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on the target to which begin copying. Can be negative.
+     */
+    public void blitAlpha(Bitmap b, int xStart, int yStart) {
+        blitBlend(b, xStart, yStart, 0, 0, b.width, b.height, EBlendMode.COLOR_KEY);
+    }
+
+    /**
+     * Records copying part of the given bitmap except for the alpha colour 0x00000000. See
+     * {@link Bitmap#blitAlpha(Bitmap, int, int, int, int, int, int)}.
+     *
+     * @param b      Bitmap to copy.
+     * @param xStart X coordinate position on the target to which begin copying. Can be negative.
+     * @param yStart Y coordinate position on the target to which begin copying. Can be negative.
+     * @param xb     X coordinate position on the given bitmap from which begin copying.
+     * @param yb     Y coordinate position on the given bitmap from which begin copying.
+     * @param w      Width of the area to copy.
+     * @param h      Height of the area to copy.
+     */
+    public void blitAlpha(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h) {
+        blitBlend(b, xStart, yStart, xb, yb, w, h, EBlendMode.COLOR_KEY);
+    }
+
+    /**
+     * Records combining all of the given bitmap with the target. See
+     * {@link Bitmap#blitBlend(Bitmap, int, int, EBlendMode)}.
+     *
+     * @param b      Bitmap to draw.
+     * @param xStart X coordinate position on the target to which begin drawing. Can be negative.
+     * @param yStart Y coordinate position on the target to which begin drawing. Can be negative.
+     * @param mode   How to combine the pixels.
+     */
+    public void blitBlend(Bitmap b, int xStart, int yStart, EBlendMode mode) {
+        blitBlend(b, xStart, yStart, 0, 0, b.width, b.height, mode);
+    }
+
+    /**
+     * Records combining part of the given bitmap with the target. See
+     * {@link Bitmap#blitBlend(Bitmap, int, int, int, int, int, int, EBlendMode)}.
+     *
+     * @param b      Bitmap to draw.
+     * @param xStart X coordinate position on the target to which begin drawing. Can be negative.
+     * @param yStart Y coordinate position on the target to which begin drawing. Can be negative.
+     * @param xb     X coordinate position on the given bitmap from which begin drawing.
+     * @param yb     Y coordinate position on the given bitmap from which begin drawing.
+     * @param w      Width of the area to draw.
+     * @param h      Height of the area to draw.
+     * @param mode   How to combine the pixels.
+     */
+    public void blitBlend(Bitmap b, int xStart, int yStart, int xb, int yb, int w, int h, EBlendMode mode) {
+        if (w <= 0 || h <= 0) return;
+        add(OP_BLIT + mode.ordinal(), sourceId(b), xStart, yStart, xb, yb, w, h, 0);
+    }
+
+    /**
+     * Draws the recorded commands onto the given bitmap. The commands are kept, so they can be drawn again.
+     *
+     * @param target Bitmap to draw onto.
+     */
+    public void execute(Bitmap target) {
+        preparePlan(target);
+
+        for (int i = 0, end = planCount * COMMAND_SIZE; i < end; i += COMMAND_SIZE)
+            draw(target, i, 0, 0);
+    }
+
+    /**
+     * Draws the recorded commands onto the given bitmap and removes them from the buffer.
+     *
+     * @param target Bitmap to draw onto.
+     */
+    public void flush(Bitmap target) {
+        execute(target);
+        reset();
+    }
+
+    /**
+     * Removes all commands from the buffer. The current layer is kept.
+     */
+    public void reset() {
+        count = 0;
+        planCount = 0;
+        planValid = true;
+        sources.clear();
+        sourceIds.clear();
+    }
+
+    /**
+     * Gets the amount of recorded commands.
+     *
+     * @return Amount of recorded commands.
+     */
+    public int getCommandCount() {
+        return count;
+    }
+
+    /**
+     * Gets the amount of commands that are drawn after merging fills. If occlusion culling is enabled, the commands
+     * are culled for the size of the last target they were drawn onto.
+     *
+     * @return Amount of drawn commands.
+     */
+    public int getExecutedCount() {
+        if (!planValid) buildPlan(planWidth, planHeight);
+        return planCount;
+    }
+
+    /**
+     * Gets the commands in the order they are drawn onto the given target. The commands are stored at multiples of
+     * {@link #COMMAND_SIZE}; there are {@link #getExecutedCount()} of them.
+     *
+     * @param target Bitmap the commands are drawn onto.
+     * @return The planned commands.
+     */
+    int[] getPlan(Bitmap target) {
+        preparePlan(target);
+        return plan;
+    }
+
+    /**
+     * Draws a single planned command.
+     *
+     * @param target Bitmap to draw onto.
+     * @param i      Position of the command in the plan.
+     * @param dx     Amount to move the command by (X coordinate).
+     * @param dy     Amount to move the command by (Y coordinate).
+     */
+    void draw(Bitmap target, int i, int dx, int dy) {
+        int[] p = plan;
+        int op = p[i + OP];
+        if (op == OP_CLEAR)
+            target.clear(p[i + COLOR]);
+        else if (op == OP_FILL)
+            target.fill(p[i + COLOR], p[i + X] + dx, p[i + Y] + dy, p[i + W], p[i + H]);
+        else
+            target.blitBlend(sources.get(p[i + SOURCE]), p[i + X] + dx, p[i + Y] + dy, p[i + XB], p[i + YB], p[i + W], p[i + H], MODES[op - OP_BLIT]);
+    }
+
+    private int sourceId(Bitmap b) {
+        Integer id = sourceIds.get(b);
+        if (id != null) return id;
+
+        if (sources.size() == MAX_SOURCES) throw new IllegalStateException("Too many source bitmaps");
+        id = sources.size();
+        sources.add(b);
+        sourceIds.put(b, id);
+        return id;
+    }
+
+    private void add(int op, int source, int x, int y, int xb, int yb, int w, int h, int color) {
+        if (count == MAX_COMMANDS) throw new IllegalStateException("Command buffer is full");
+        int p = count * COMMAND_SIZE;
+        if (p + COMMAND_SIZE > commands.length)
+            commands = Arrays.copyOf(commands, commands.length * 2);
+
+        int[] c = commands;
+        c[p + OP] = op;
+        c[p + LAYER] = layer;
+        c[p + SOURCE] = source;
+        c[p + X] = x;
+        c[p + Y] = y;
+        c[p + XB] = xb;
+        c[p + YB] = yb;
+        c[p + W] = w;
+        c[p + H] = h;
+        c[p + COLOR] = color;
+        count++;
+        planValid = false;
+    }
+
+    private void preparePlan(Bitmap target) {
+        if (!planValid || culling && (target.width != planWidth || target.height != planHeight))
+            buildPlan(target.width, target.height);
+    }
+
+    /**
+     * Sorts the commands by layer (and source bitmap), merges adjacent fills and culls hidden draws for a target of
+     * the given size. A negative size skips culling.
+     */
+    private void buildPlan(int width, int height) {
+        if (keys.length < count) keys = new long[count];
+        if (plan.length < count * COMMAND_SIZE) plan = new int[commands.length];
+
+        // Layer in bits 48-62, source + 1 in bits 24-47 and the recorded index in bits 0-23, so the sort is stable
+        for (int i = 0; i < count; i++) {
+            int p = i * COMMAND_SIZE;
+            long key = (long) commands[p + LAYER] << 48 | i;
+            if (sorting) key |= (long) (commands[p + SOURCE] + 1) << 24;
+            keys[i] = key;
+        }
+        Arrays.sort(keys, 0, count);
+
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            int src = (int) (keys[i] & 0xFFFFFF) * COMMAND_SIZE;
+            if (n > 0 && mergeFill(src, (n - 1) * COMMAND_SIZE)) continue;
+            System.arraycopy(commands, src, plan, n * COMMAND_SIZE, COMMAND_SIZE);
+            n++;
+        }
+
+        planCount = n;
+        planValid = true;
+
+        planWidth = planHeight = -1;
+        culledCommands = 0;
+        culledPixels = 0;
+        if (culling && width >= 0) {
+            cull(width, height);
+            planWidth = width;
+            planHeight = height;
+        }
+    }
+
+    /**
+     * Walks the plan from the last command to the first, trimming or removing draws whose rows and columns are
+     * covered by the opaque draws after them.
+     */
+    private void cull(int width, int height) {
+        if (coverStart.length < height) {
+            coverStart = new int[height];
+            coverEnd = new int[height];
+        }
+        Arrays.fill(coverStart, 0, height, 0);
+        Arrays.fill(coverEnd, 0, height, 0);
+
+        int[] p = plan;
+        for (int i = (planCount - 1) * COMMAND_SIZE; i >= 0; i -= COMMAND_SIZE) {
+            long area = clip(i, width, height);
+            if (area == 0) {
+                p[i + OP] = -1;
+                continue;
+            }
+
+            int x0 = p[i + X], y0 = p[i + Y], x1 = x0 + p[i + W], y1 = y0 + p[i + H];
+            int top = y0, bottom = y1;
+            while (top < bottom && covered(top, x0, x1))
+                top++;
+            while (bottom > top && covered(bottom - 1, x0, x1))
+                bottom--;
+
+            if (top == bottom) {
+                p[i + OP] = -1;
+                culledCommands++;
+                culledPixels += area;
+                continue;
+            }
+
+            // Every remaining row has an uncovered pixel, so the trimmed columns stay non-empty
+            int left = x1, right = x0;
+            for (int y = top; y < bottom; y++) {
+                left = Math.min(left, coverStart[y] <= x0 && coverEnd[y] > x0 ? coverEnd[y] : x0);
+                right = Math.max(right, coverStart[y] < x1 && coverEnd[y] >= x1 ? coverStart[y] : x1);
+            }
+
+            p[i + X] += left - x0;
+            p[i + XB] += left - x0;
+            p[i + Y] += top - y0;
+            p[i + YB] += top - y0;
+            p[i + W] = right - left;
+            p[i + H] = bottom - top;
+            culledPixels += area - (long) (right - left) * (bottom - top);
+
+            if (p[i + OP] == OP_FILL || p[i + OP] == OP_BLIT + EBlendMode.REPLACE.ordinal())
+                cover(x0, y0, x1, y1);
+        }
+
+        int n = 0;
+        for (int i = 0; i < planCount; i++) {
+            int src = i * COMMAND_SIZE;
+            if (p[src + OP] == -1) continue;
+            if (n != i) System.arraycopy(p, src, p, n * COMMAND_SIZE, COMMAND_SIZE);
+            n++;
+        }
+        planCount = n;
+    }
+
+    /**
+     * Clips a planned command against its source and the target, turning clears into fills.
+     *
+     * @return The amount of pixels the command draws.
+     */
+    private long clip(int i, int width, int height) {
+        int[] p = plan;
+        if (p[i + OP] == OP_CLEAR) {
+            p[i + OP] = OP_FILL;
+            p[i + X] = p[i + Y] = 0;
+            p[i + W] = width;
+            p[i + H] = height;
+        }
+
+        int x = p[i + X], y = p[i + Y], xb = p[i + XB], yb = p[i + YB], w = p[i + W], h = p[i + H];
+        if (p[i + OP] != OP_FILL) {
+            Bitmap b = sources.get(p[i + SOURCE]);
+            if (xb < 0) {
+                x -= xb;
+                w += xb;
+                xb = 0;
+            }
+            if (yb < 0) {
+                y -= yb;
+                h += yb;
+                yb = 0;
+            }
+            if (w > b.width - xb) w = b.width - xb;
+            if (h > b.height - yb) h = b.height - yb;
+        }
+        if (x < 0) {
+            xb -= x;
+            w += x;
+            x = 0;
+        }
+        if (y < 0) {
+            yb -= y;
+            h += y;
+            y = 0;
+        }
+        if (w > width - x) w = width - x;
+        if (h > height - y) h = height - y;
+        if (w <= 0 || h <= 0) return 0;
+
+        p[i + X] = x;
+        p[i + Y] = y;
+        p[i + XB] = xb;
+        p[i + YB] = yb;
+        p[i + W] = w;
+        p[i + H] = h;
+        return (long) w * h;
+    }
+
+    private boolean covered(int y, int x0, int x1) {
+        return coverStart[y] <= x0 && coverEnd[y] >= x1;
+    }
+
+    /**
+     * Adds an opaque area to the coverage. Each row keeps a single covered range: touching ranges are joined,
+     * otherwise the longer one is kept.
+     */
+    private void cover(int x0, int y0, int x1, int y1) {
+        for (int y = y0; y < y1; y++) {
+            int start = coverStart[y], end = coverEnd[y];
+            if (start >= end || x1 - x0 > end - start && (x0 > end || x1 < start)) {
+                coverStart[y] = x0;
+                coverEnd[y] = x1;
+            } else if (x0 <= end && x1 >= start) {
+                coverStart[y] = Math.min(start, x0);
+                coverEnd[y] = Math.max(end, x1);
+            }
+        }
+    }
+
+    /**
+     * Merges a fill into the previous planned fill if both have the same color and together form a rectangle.
+     */
+    private boolean mergeFill(int src, int dst) {
+        int[] c = commands, p = plan;
+        if (c[src + OP] != OP_FILL || p[dst + OP] != OP_FILL || c[src + COLOR] != p[dst + COLOR]) return false;
+
+        if (c[src + X] == p[dst + X] && c[src + W] == p[dst + W]) {
+            if (c[src + Y] == p[dst + Y] + p[dst + H]) {
+                p[dst + H] += c[src + H];
+                return true;
+            }
+            if (c[src + Y] + c[src + H] == p[dst + Y]) {
+                p[dst + Y] = c[src + Y];
+                p[dst + H] += c[src + H];
+                return true;
+            }
+        } else if (c[src + Y] == p[dst + Y] && c[src + H] == p[dst + H]) {
+            if (c[src + X] == p[dst + X] + p[dst + W]) {
+                p[dst + W] += c[src + W];
+                return true;
+            }
+            if (c[src + X] + c[src + W] == p[dst + X]) {
+                p[dst + X] = c[src + X];
+                p[dst + W] += c[src + W];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[COMMANDS] ");
+        sb.append("Commands: ").append(count).append(" Sources: ").append(sources.size());
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,324 @@
+package com.jpixel.image;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A cache of images and sprite sheets loaded from the resource folder, keyed by their path (and sprite size).
+ * The least recently used entries are evicted when the memory budget is exceeded. Optionally, the entries are held
+ * through soft references, so the garbage collector may also free them when memory runs low.
+ * <p>
+ * If several threads request the same entry at once, it is decoded only once and the other threads wait for it.
+ * A sprite sheet shares the pixels of the image of the same path; both are charged against the budget, so the
+ * cache errs on the safe side. Install the cache with {@link ImageLoader#setCache(ImageCache)} to use it for all
+ * resource loading. The cache is thread-safe.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class ImageCache {
+    private final long budget;
+    private final boolean softReferences;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private final HashMap<Key, CompletableFuture<Object>> loading = new HashMap<Key, CompletableFuture<Object>>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<Object>();
+    private long bytes;
+    private long hits, misses, evictions;
+
+    /**
+     * Initializes the cache with strong references.
+     *
+     * @param budget Maximum amount of memory in bytes taken by the cached images.
+     */
+    public ImageCache(long budget) {
+        this(budget, false);
+    }
+
+    /**
+     * Initializes the cache.
+     *
+     * @param budget         Maximum amount of memory in bytes taken by the cached images.
+     * @param softReferences If true, the garbage collector may free cached images when memory runs low.
+     */
+    public ImageCache(long budget, boolean softReferences) {
+        if (budget < 0) throw new IllegalArgumentException("Budget cannot be negative");
+        this.budget = budget;
+        this.softReferences = softReferences;
+    }
+
+    /**
+     * Gets an image, loading it if it is not cached.
+     *
+     * @param path Path to the image in the resource folder.
+     * @return A bitmap of the image. Must not be modified, as it is shared by all users of the cache.
+     * @throws IOException File not found or incompatible type.
+     */
+    public Bitmap getImage(String path) throws IOException {
+        return (Bitmap) get(new Key(path, 0, 0));
+    }
+
+    /**
+     * Gets a sprite sheet, loading it if it is not cached.
+     *
+     * @param path         Path to the image in the resource folder.
+     * @param spriteWidth  Width of a single sprite.
+     * @param spriteHeight Height of a single sprite.
+     * @return A sprite sheet of the image. Must not be modified, as it is shared by all users of the cache.
+     * @throws IOException File not found or incompatible type.
+     */
+    public SpriteSheet getSpriteSheet(String path, int spriteWidth, int spriteHeight) throws IOException {
+        if (spriteWidth < 1 || spriteHeight < 1) throw new IllegalArgumentException("Sprite size must be positive");
+        return (SpriteSheet) get(new Key(path, spriteWidth, spriteHeight));
+    }
+
+    /**
+     * Removes the image and all sprite sheets of the given path from the cache. Loads in progress are still returned
+     * to the threads waiting for them, but are not stored.
+     *
+     * @param path Path to the image in the resource folder.
+     */
+    public synchronized void invalidate(String path) {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry e = it.next();
+            if (e.key.path.equals(path)) {
+                bytes -= e.size;
+                it.remove();
+            }
+        }
+        for (Iterator<Key> it = loading.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().path.equals(path))
+                it.remove();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache. Loads in progress are not stored. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        loading.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return Maximum amount of memory in bytes taken by the cached images.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return True, if the garbage collector may free cached images.
+     */
+    public boolean isSoftReferences() {
+        return softReferences;
+    }
+
+    /**
+     * @return Amount of memory in bytes currently taken by the cached images.
+     */
+    public synchronized long getBytes() {
+        purge();
+        return bytes;
+    }
+
+    /**
+     * @return Amount of cached entries.
+     */
+    public synchronized int getSize() {
+        purge();
+        return entries.size();
+    }
+
+    /**
+     * @return Amount of requests served from the cache, including requests that waited for another thread to
+     * load the same entry.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Amount of requests that had to load the entry.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Amount of entries evicted to stay within the budget or freed by the garbage collector.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters.
+     */
+    public synchronized void resetStatistics() {
+        hits = misses = evictions = 0;
+    }
+
+    private Object get(Key key) throws IOException {
+        CompletableFuture<Object> pending;
+        boolean owner = false;
+        synchronized (this) {
+            purge();
+            Entry e = entries.get(key);
+            Object value = e == null ? null : e.value();
+            if (value != null) {
+                hits++;
+                return value;
+            }
+
+            pending = loading.get(key);
+            if (pending != null) {
+                hits++;
+            } else {
+                misses++;
+                pending = new CompletableFuture<Object>();
+                loading.put(key, pending);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                Object value = load(key);
+                synchronized (this) {
+                    // Skip storing if the path was invalidated while loading
+                    if (loading.get(key) == pending) {
+                        loading.remove(key);
+                        store(key, value);
+                    }
+                }
+                pending.complete(value);
+            } catch (IOException e) {
+                fail(key, pending, e);
+                throw e;
+            } catch (RuntimeException e) {
+                fail(key, pending, e);
+                throw e;
+            } catch (Error e) {
+                fail(key, pending, e);
+                throw e;
+            }
+        }
+
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw new IOException("Loading " + key.path + " failed", cause);
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private Object load(Key key) throws IOException {
+        if (key.spriteWidth == 0) return ImageLoader.decodeResource(key.path);
+        return new SpriteSheet(getImage(key.path), key.spriteWidth, key.spriteHeight);
+    }
+
+    private void fail(Key key, CompletableFuture<Object> pending, Throwable e) {
+        synchronized (this) {
+            if (loading.get(key) == pending)
+                loading.remove(key);
+        }
+        pending.completeExceptionally(e);
+    }
+
+    private void store(Key key, Object value) {
+        Bitmap b = value instanceof SpriteSheet ? ((SpriteSheet) value).sheetBitmap : (Bitmap) value;
+        Entry e = new Entry(key, value, (long) b.width * b.height * 4, softReferences, collected);
+        Entry old = entries.put(key, e);
+        if (old != null) bytes -= old.size;
+        bytes += e.size;
+
+        // Evict the least recently used entries, but always keep the one just loaded
+        Iterator<Entry> it = entries.values().iterator();
+        while (bytes > budget && entries.size() > 1) {
+            Entry eldest = it.next();
+            bytes -= eldest.size;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the entries whose values the garbage collector has freed.
+     */
+    private void purge() {
+        Object ref;
+        while ((ref = collected.poll()) != null) {
+            Entry e = (Entry) ref;
+            // Removing by value does not count as an access of the access ordered map
+            if (entries.remove(e.key, e)) {
+                bytes -= e.size;
+                evictions++;
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("[IMAGECACHE] ");
+        sb.append("Entries: ").append(entries.size());
+        sb.append(" Bytes: ").append(bytes).append("/").append(budget);
+        sb.append(" Hits: ").append(hits).append(" Misses: ").append(misses).append(" Evictions: ").append(evictions);
+        return sb.toString();
+    }
+
+    private static final class Entry extends SoftReference<Object> {
+        final Key key;
+        final long size;
+
+        /**
+         * The value, if it is held strongly.
+         */
+        final Object strong;
+
+        Entry(Key key, Object value, long size, boolean soft, ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.key = key;
+            this.size = size;
+            this.strong = soft ? null : value;
+        }
+
+        Object value() {
+            return strong != null ? strong : get();
+        }
+    }
+
+    private static final class Key {
+        final String path;
+        final int spriteWidth, spriteHeight;
+
+        Key(String path, int spriteWidth, int spriteHeight) {
+            if (path == null) throw new IllegalArgumentException("Path cannot be null");
+            this.path = path;
+            this.spriteWidth = spriteWidth;
+            this.spriteHeight = spriteHeight;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return k.path.equals(path) && k.spriteWidth == spriteWidth && k.spriteHeight == spriteHeight;
+        }
+
+        @Override
+        public int hashCode() {
+            return (path.hashCode() * 31 + spriteWidth) * 31 + spriteHeight;
+        }
+    }
+}
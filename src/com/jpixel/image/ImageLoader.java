@@ -1,7 +1,14 @@
 package com.jpixel.image;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
+import java.io.InputStream;
 
 import javax.imageio.ImageIO;
 
@@ -14,9 +21,28 @@ import javax.imageio.ImageIO;
  *
  */
 public class ImageLoader {
+	private static volatile ImageCache cache;
 
 	private ImageLoader(){
 	}
+
+	/**
+	 * Sets the cache used by {@link #loadImageAsResource(String)} and
+	 * {@link #loadSpriteSheetAsResource(String, int, int)}. While a cache is set, loading the same resource
+	 * again returns the same shared bitmap or sprite sheet, which must thus not be modified.
+	 * 
+	 * @param cache The cache, or null to decode every resource when it is loaded.
+	 */
+	public static void setCache(ImageCache cache) {
+		ImageLoader.cache = cache;
+	}
+
+	/**
+	 * @return The cache used to load resources, or null if resources are not cached.
+	 */
+	public static ImageCache getCache() {
+		return cache;
+	}
 	
 	/**
 	 * Loads an image as a bitmap from the resource folder. The name of the folder depends, but
@@ -27,13 +53,100 @@ public class ImageLoader {
 	 * @throws IOException File not found or incompatible type.
 	 */
 	public static Bitmap loadImageAsResource(String path) throws IOException {
-		Bitmap result = null;
+		ImageCache c = cache;
+		return c != null ? c.getImage(path) : decodeResource(path);
+	}
+
+	/**
+	 * Decodes an image from the resource folder, bypassing the cache.
+	 * 
+	 * @param path Path to the image in the resource folder.
+	 * @return A bitmap of the image.
+	 * @throws IOException File not found or incompatible type.
+	 */
+	static Bitmap decodeResource(String path) throws IOException {
 		BufferedImage img = ImageIO.read(ImageLoader.class.getResourceAsStream(path));
-		result = new Bitmap(img.getWidth(), img.getHeight());
+		return toBitmap(img);
+	}
+
+	/**
+	 * Loads a {@link TextureAtlas} from the resource folder.
+	 * 
+	 * @param imagePath Path to the atlas image in the resource folder.
+	 * @param indexPath Path to the atlas index in the resource folder.
+	 * @return A {@link TextureAtlas} of the given image and index.
+	 * @throws IOException File not found, incompatible type or malformed index.
+	 */
+	public static TextureAtlas loadTextureAtlasAsResource(String imagePath, String indexPath) throws IOException {
+		InputStream image = ImageLoader.class.getResourceAsStream(imagePath);
+		InputStream index = ImageLoader.class.getResourceAsStream(indexPath);
+		if (image == null || index == null)
+			throw new IOException("Resource not found: " + (image == null ? imagePath : indexPath));
+
+		try {
+			return TextureAtlas.read(image, index);
+		} finally {
+			image.close();
+			index.close();
+		}
+	}
+
+	/**
+	 * Copies the pixels of an image into a new bitmap.
+	 * 
+	 * @param img Image to copy.
+	 * @return A bitmap of the image.
+	 */
+	static Bitmap toBitmap(BufferedImage img) {
+		Bitmap result = new Bitmap(img.getWidth(), img.getHeight());
 		img.getRGB(0, 0, result.width, result.height, result.pixels, 0, result.width);
 
 		return result;
 	}
+
+	/**
+	 * Copies the pixels of a bitmap into a new ARGB image.
+	 * 
+	 * @param b Bitmap to copy.
+	 * @return An image of the bitmap.
+	 */
+	static BufferedImage toImage(Bitmap b) {
+		BufferedImage img = new BufferedImage(b.width, b.height, BufferedImage.TYPE_INT_ARGB);
+		if (b.pixels != null) {
+			img.setRGB(0, 0, b.width, b.height, b.pixels, b.offset, b.stride);
+			return img;
+		}
+
+		int[] row = new int[b.width];
+		for (int y = 0; y < b.height; y++) {
+			b.storage.read(b.offset + y * b.stride, row, 0, b.width);
+			img.setRGB(0, y, b.width, 1, row, 0, b.width);
+		}
+
+		return img;
+	}
+
+	/**
+	 * Wraps the pixels of a bitmap into an image without copying them. Changes to the bitmap are visible in the image
+	 * and vice versa. Only bitmaps backed by an array can be wrapped.
+	 * 
+	 * @param b Bitmap to wrap.
+	 * @param alpha If true, the image has an alpha channel. Otherwise the alpha bits of the pixels are ignored, which
+	 *            makes the image faster to draw.
+	 * @return An image sharing the pixels of the bitmap.
+	 */
+	public static BufferedImage wrapAsImage(Bitmap b, boolean alpha) {
+		if (b.pixels == null) throw new IllegalArgumentException("Only array-backed bitmaps can be wrapped");
+
+		DirectColorModel model = alpha ? new DirectColorModel(32, 0xFF0000, 0xFF00, 0xFF, 0xFF000000)
+				: new DirectColorModel(24, 0xFF0000, 0xFF00, 0xFF, 0);
+		SinglePixelPackedSampleModel sampleModel = new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT, b.width,
+				b.height, b.stride, model.getMasks());
+		DataBufferInt buffer = new DataBufferInt(b.pixels, b.pixels.length - b.offset, b.offset);
+		WritableRaster raster = Raster.createWritableRaster(sampleModel, buffer, null);
+
+		return new BufferedImage(model, raster, false, null);
+	}
 	
 	/**
 	 * Loads an image as a {@link SpriteSheet} from the resource folder.
@@ -45,6 +158,8 @@ public class ImageLoader {
 	 * @throws IOException File not found or incompatible type.
 	 */
 	public static SpriteSheet loadSpriteSheetAsResource(String path, int spriteWidth, int spriteHeight) throws IOException {
-		return new SpriteSheet(loadImageAsResource(path), spriteWidth, spriteHeight);
+		ImageCache c = cache;
+		if (c != null) return c.getSpriteSheet(path, spriteWidth, spriteHeight);
+		return new SpriteSheet(decodeResource(path), spriteWidth, spriteHeight);
 	}
 }
@@ -0,0 +1,108 @@
+package com.jpixel.image;
+
+import com.jpixel.image.Bitmap.EResizeMode;
+
+/**
+ * A chain of progressively smaller versions (levels) of a bitmap. Each level is half the size of the previous
+ * one and is created with a box filter, so drawing a bitmap at a small scale samples a level of about the
+ * right size instead of the full-size bitmap. This costs at most a third more memory than the bitmap itself.
+ * <p>
+ * Levels are created on first use, or all at once when requested. The levels are snapshots of the bitmap.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ * @see Bitmap#blitScaled(Mipmap, int, int, double, boolean)
+ */
+public class Mipmap {
+    protected final Bitmap[] levels;
+
+    /**
+     * Initializes the chain. Levels are created on first use.
+     *
+     * @param b Full-size bitmap (level 0).
+     */
+    public Mipmap(Bitmap b) {
+        this(b, false);
+    }
+
+    /**
+     * Initializes the chain.
+     *
+     * @param b     Full-size bitmap (level 0).
+     * @param eager If true, all levels are created immediately.
+     */
+    public Mipmap(Bitmap b, boolean eager) {
+        int count = 1;
+        for (int w = b.width, h = b.height; w > 1 || h > 1; w >>= 1, h >>= 1)
+            count++;
+
+        levels = new Bitmap[count];
+        levels[0] = b;
+
+        if (eager) getLevel(count - 1);
+    }
+
+    /**
+     * Gets a level of the chain, creating it and any missing larger levels if needed.
+     *
+     * @param level Level to get. 0 is the full-size bitmap.
+     * @return The bitmap of the level.
+     */
+    public synchronized Bitmap getLevel(int level) {
+        if (level < 0 || level >= levels.length)
+            throw new IndexOutOfBoundsException("Level: " + level + ", levels: " + levels.length);
+
+        for (int i = 1; i <= level; i++) {
+            if (levels[i] != null) continue;
+            Bitmap prev = levels[i - 1];
+            levels[i] = Bitmap.resize(prev, Math.max(1, prev.width >> 1), Math.max(1, prev.height >> 1), EResizeMode.AREA);
+        }
+
+        return levels[level];
+    }
+
+    /**
+     * Finds the level whose size is nearest to the full-size bitmap drawn at the given scale.
+     *
+     * @param scale Scale at which the bitmap is drawn.
+     * @return The nearest level.
+     */
+    public int getLevelForScale(double scale) {
+        if (scale >= 1.0) return 0;
+        if (scale <= 0) return levels.length - 1;
+
+        int level = (int) Math.round(-Math.log(scale) / Math.log(2.0));
+        return Math.min(level, levels.length - 1);
+    }
+
+    /**
+     * @return Amount of levels in the chain.
+     */
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * @return Width of the full-size bitmap.
+     */
+    public int getWidth() {
+        return levels[0].width;
+    }
+
+    /**
+     * @return Height of the full-size bitmap.
+     */
+    public int getHeight() {
+        return levels[0].height;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[MIPMAP] ");
+        sb.append(levels[0].width).append("x").append(levels[0].height);
+        sb.append(" Levels: ").append(levels.length);
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
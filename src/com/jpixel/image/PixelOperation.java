@@ -0,0 +1,20 @@
+package com.jpixel.image;
+
+/**
+ * An operation that modifies spans of pixels in place, e.g. a tint or a color correction.
+ * Applied to a bitmap with {@link Bitmap#apply(PixelOperation)}.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public interface PixelOperation {
+    /**
+     * Modifies a span of pixels. May be called from several threads at once for different spans.
+     *
+     * @param pixels Array that contains the span.
+     * @param offset Position of the first pixel of the span.
+     * @param length Amount of pixels in the span.
+     */
+    void apply(int[] pixels, int offset, int length);
+}
@@ -0,0 +1,105 @@
+package com.jpixel.image;
+
+/**
+ * Storage for the pixel data of a {@link Bitmap}. Pixels are addressed by a linear index.
+ * <p>
+ * Storages that keep the pixels in a Java array return the array from {@link #array()}, which lets
+ * the bitmap operations work on the array directly. Other storages are accessed through the methods
+ * of this class.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public abstract class PixelStorage {
+
+    /**
+     * Gets the amount of pixels in the storage.
+     *
+     * @return Amount of pixels.
+     */
+    public abstract int size();
+
+    /**
+     * Gets a single pixel.
+     *
+     * @param index Index of the pixel.
+     * @return The color of the pixel.
+     */
+    public abstract int get(int index);
+
+    /**
+     * Sets a single pixel.
+     *
+     * @param index Index of the pixel.
+     * @param color New color of the pixel.
+     */
+    public abstract void set(int index, int color);
+
+    /**
+     * Sets a range of pixels to a single color.
+     *
+     * @param index  Index of the first pixel.
+     * @param length Amount of pixels to set.
+     * @param color  Color to fill with.
+     */
+    public abstract void fill(int index, int length, int color);
+
+    /**
+     * Copies a range of pixels from the storage into an array.
+     *
+     * @param index     Index of the first pixel to copy.
+     * @param dst       Array to copy the pixels into.
+     * @param dstOffset Position in the array to which begin copying.
+     * @param length    Amount of pixels to copy.
+     */
+    public abstract void read(int index, int[] dst, int dstOffset, int length);
+
+    /**
+     * Copies a range of pixels from an array into the storage.
+     *
+     * @param index     Index of the first pixel to write.
+     * @param src       Array to copy the pixels from.
+     * @param srcOffset Position in the array from which begin copying.
+     * @param length    Amount of pixels to copy.
+     */
+    public abstract void write(int index, int[] src, int srcOffset, int length);
+
+    /**
+     * Copies a range of pixels from another storage into this one. The ranges may overlap if both
+     * storages are the same.
+     *
+     * @param src      Storage to copy the pixels from.
+     * @param srcIndex Index of the first pixel to copy.
+     * @param index    Index of the first pixel to write.
+     * @param length   Amount of pixels to copy.
+     */
+    public void copy(PixelStorage src, int srcIndex, int index, int length) {
+        int[] srcArray = src.array();
+        if (srcArray != null) {
+            write(index, srcArray, srcIndex, length);
+            return;
+        }
+
+        int[] tmp = new int[length];
+        src.read(srcIndex, tmp, 0, length);
+        write(index, tmp, 0, length);
+    }
+
+    /**
+     * Creates a new, empty storage of the same kind as this one.
+     *
+     * @param size Amount of pixels to store.
+     * @return A new storage.
+     */
+    public abstract PixelStorage allocate(int size);
+
+    /**
+     * Gets the Java array that backs this storage.
+     *
+     * @return The backing array, or null if the pixels are not stored in a Java array.
+     */
+    public int[] array() {
+        return null;
+    }
+}
@@ -0,0 +1,308 @@
+package com.jpixel.image;
+
+import java.util.Arrays;
+
+import com.jpixel.color.ColorMath;
+
+/**
+ * Fills arbitrary polygons, including concave and self-intersecting ones and polygons with holes, using a global
+ * edge table and an active edge list.
+ * <p>
+ * The vertices are given as a flat array of coordinates (x0, y0, x1, y1, ...), so no vertex objects are needed.
+ * A pixel is filled if its center is inside the polygon according to the fill rule. With anti-aliasing, every row
+ * is sampled four times and the edge pixels are blended over the bitmap by the amount of samples they cover.
+ * <p>
+ * The filler keeps its edge table between calls, so filling does not allocate once the arrays have grown to the
+ * size of the polygons. A filler should not be used by several threads at once; {@link Bitmap#fillPolygon} uses a
+ * filler of the calling thread.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class PolygonFiller {
+    /**
+     * Ways to decide which areas of a self-intersecting polygon are inside.
+     */
+    public static enum EFillRule {
+        /**
+         * A point is inside if a ray from it crosses the outline an odd amount of times.
+         */
+        EVEN_ODD,
+        /**
+         * A point is inside if the outline winds around it a non-zero amount of times.
+         */
+        NON_ZERO
+    }
+
+    /**
+     * Amount of samples per row with anti-aliasing.
+     */
+    private static final int SUBSAMPLES = 4;
+
+    /**
+     * Edge table: the top and bottom of each edge, the X coordinate at the top, the change of X per sample row
+     * and the winding direction (1 if the edge goes down, otherwise -1).
+     */
+    private float[] edgeTop = new float[64], edgeX = new float[64], edgeStep = new float[64];
+    private int[] edgeEnd = new int[64], edgeDir = new int[64];
+    private int[] edgeNext = new int[64];
+
+    /**
+     * First edge of each sample row, linked through {@link #edgeNext}.
+     */
+    private int[] buckets = new int[0];
+
+    /**
+     * Active edge list and the X coordinate of each active edge at the current sample row.
+     */
+    private int[] active = new int[64];
+    private float[] activeX = new float[64];
+
+    /**
+     * Amount of samples that cover each pixel of the current row with anti-aliasing.
+     */
+    private int[] coverage = new int[0];
+
+    /**
+     * Fills a polygon with a single outline.
+     *
+     * @param target      Bitmap to fill on.
+     * @param color       Color to fill with.
+     * @param xy          Coordinates of the vertices as (x, y) pairs.
+     * @param vertexCount Amount of vertices.
+     * @param rule        Fill rule.
+     * @param antialias   If true, the edges are anti-aliased.
+     */
+    public void fill(Bitmap target, int color, float[] xy, int vertexCount, EFillRule rule, boolean antialias) {
+        fillContours(target, color, xy, null, vertexCount, rule, antialias);
+    }
+
+    /**
+     * Fills a polygon made of several outlines, e.g. an area with holes. The vertices of the outlines follow
+     * each other in the coordinate array.
+     *
+     * @param target       Bitmap to fill on.
+     * @param color        Color to fill with.
+     * @param xy           Coordinates of the vertices as (x, y) pairs.
+     * @param contours     Amount of vertices in each outline.
+     * @param contourCount Amount of outlines.
+     * @param rule         Fill rule.
+     * @param antialias    If true, the edges are anti-aliased.
+     */
+    public void fill(Bitmap target, int color, float[] xy, int[] contours, int contourCount, EFillRule rule, boolean antialias) {
+        if (contourCount < 0 || contours.length < contourCount)
+            throw new IllegalArgumentException("Not enough outlines: " + contourCount);
+        fillContours(target, color, xy, contours, contourCount, rule, antialias);
+    }
+
+    private void fillContours(Bitmap target, int color, float[] xy, int[] contours, int count, EFillRule rule, boolean antialias) {
+        int samples = antialias ? SUBSAMPLES : 1;
+        int sampleRows = target.height * samples;
+
+        // Bounds of the polygon, for damage and the sample rows
+        int vertices = contours == null ? count : 0;
+        if (contours != null)
+            for (int c = 0; c < count; c++)
+                vertices += contours[c];
+        if (vertices < 0 || xy.length < vertices * 2)
+            throw new IllegalArgumentException("Not enough coordinates for " + vertices + " vertices");
+        if (vertices < 3) return;
+
+        float xMin = Float.POSITIVE_INFINITY, yMin = xMin, xMax = Float.NEGATIVE_INFINITY, yMax = xMax;
+        for (int i = 0; i < vertices * 2; i += 2) {
+            xMin = Math.min(xMin, xy[i]);
+            xMax = Math.max(xMax, xy[i]);
+            yMin = Math.min(yMin, xy[i + 1]);
+            yMax = Math.max(yMax, xy[i + 1]);
+        }
+        int sFirst = Math.max(sampleIndex(yMin, samples), 0);
+        int sEnd = Math.min(sampleIndex(yMax, samples), sampleRows);
+        int x0 = Math.max((int) Math.floor(xMin), 0), x1 = Math.min((int) Math.ceil(xMax) + 1, target.width);
+        if (sFirst >= sEnd || x0 >= x1) return;
+        target.markDamaged(x0, sFirst / samples, x1 - x0, (sEnd - 1) / samples + 1 - sFirst / samples);
+
+        int edges = buildEdgeTable(xy, contours, count, vertices, samples, sFirst, sEnd);
+        if (edges == 0) return;
+
+        if (antialias) {
+            if (coverage.length < target.width) coverage = new int[target.width];
+            Arrays.fill(coverage, 0, target.width, 0);
+        }
+
+        int activeCount = 0;
+        int coverMin = Integer.MAX_VALUE, coverMax = 0;
+        boolean nonZero = rule == EFillRule.NON_ZERO;
+
+        for (int s = sFirst; s < sEnd; s++) {
+            // Remove edges that ended, advance the others and add the edges that start on this row
+            int n = 0;
+            for (int i = 0; i < activeCount; i++) {
+                int e = active[i];
+                if (edgeEnd[e] > s) {
+                    active[n] = e;
+                    activeX[n++] = activeX[i] + edgeStep[e];
+                }
+            }
+            activeCount = n;
+
+            float sy = (s + 0.5f) / samples;
+            for (int e = buckets[s - sFirst]; e != -1; e = edgeNext[e]) {
+                if (activeCount == active.length) {
+                    active = Arrays.copyOf(active, activeCount * 2);
+                    activeX = Arrays.copyOf(activeX, activeCount * 2);
+                }
+                active[activeCount] = e;
+                activeX[activeCount++] = edgeX[e] + (sy - edgeTop[e]) * edgeStep[e] * samples;
+            }
+
+            // The order of the edges changes little between rows, so insertion sort is nearly linear
+            for (int i = 1; i < activeCount; i++) {
+                int e = active[i];
+                float x = activeX[i];
+                int j = i - 1;
+                for (; j >= 0 && activeX[j] > x; j--) {
+                    active[j + 1] = active[j];
+                    activeX[j + 1] = activeX[j];
+                }
+                active[j + 1] = e;
+                activeX[j + 1] = x;
+            }
+
+            int y = s / samples;
+            int winding = 0;
+            for (int i = 0; i < activeCount - 1; i++) {
+                winding += nonZero ? edgeDir[active[i]] : 1;
+                boolean inside = nonZero ? winding != 0 : (winding & 1) != 0;
+                if (!inside) continue;
+
+                int xa = Math.max(pixelIndex(activeX[i]), 0);
+                int xb = Math.min(pixelIndex(activeX[i + 1]), target.width);
+                if (xa >= xb) continue;
+
+                if (!antialias) {
+                    int p = target.offset + xa + y * target.stride;
+                    if (target.pixels != null)
+                        Arrays.fill(target.pixels, p, p + xb - xa, color);
+                    else
+                        target.storage.fill(p, xb - xa, color);
+                    continue;
+                }
+
+                for (int x = xa; x < xb; x++)
+                    coverage[x]++;
+                coverMin = Math.min(coverMin, xa);
+                coverMax = Math.max(coverMax, xb);
+            }
+
+            if (antialias && (s % samples == samples - 1 || s == sEnd - 1) && coverMin < coverMax) {
+                resolveCoverage(target, color, y, coverMin, coverMax);
+                coverMin = Integer.MAX_VALUE;
+                coverMax = 0;
+            }
+        }
+    }
+
+    /**
+     * Fills the edge table with the non-horizontal edges that cross the sample rows, bucketed by their first
+     * sample row.
+     *
+     * @return Amount of edges.
+     */
+    private int buildEdgeTable(float[] xy, int[] contours, int count, int vertices, int samples, int sFirst, int sEnd) {
+        if (buckets.length < sEnd - sFirst) buckets = new int[sEnd - sFirst];
+        Arrays.fill(buckets, 0, sEnd - sFirst, -1);
+
+        int edges = 0;
+        int start = 0;
+        for (int c = 0; c < (contours == null ? 1 : count); c++) {
+            int size = contours == null ? vertices : contours[c];
+            for (int i = 0; i < size; i++) {
+                int a = (start + i) * 2, b = (start + (i + 1) % size) * 2;
+                float ax = xy[a], ay = xy[a + 1], bx = xy[b], by = xy[b + 1];
+                int dir = 1;
+                if (ay > by) {
+                    float t = ax;
+                    ax = bx;
+                    bx = t;
+                    t = ay;
+                    ay = by;
+                    by = t;
+                    dir = -1;
+                }
+
+                int first = Math.max(sampleIndex(ay, samples), sFirst);
+                int end = Math.min(sampleIndex(by, samples), sEnd);
+                if (first >= end) continue;
+
+                if (edges == edgeTop.length) growEdges();
+                float step = (bx - ax) / (by - ay) / samples;
+                edgeTop[edges] = ay;
+                edgeX[edges] = ax;
+                edgeStep[edges] = step;
+                edgeEnd[edges] = end;
+                edgeDir[edges] = dir;
+                edgeNext[edges] = buckets[first - sFirst];
+                buckets[first - sFirst] = edges;
+                edges++;
+            }
+            start += size;
+        }
+        return edges;
+    }
+
+    /**
+     * Blends the covered pixels of a row by the fraction of samples that covered them.
+     */
+    private void resolveCoverage(Bitmap target, int color, int y, int xa, int xb) {
+        int alpha = color >>> 24;
+        int rgb = color & 0xFFFFFF;
+        int p = target.offset + xa + y * target.stride;
+
+        for (int x = xa; x < xb; x++, p++) {
+            int c = coverage[x];
+            if (c == 0) continue;
+            coverage[x] = 0;
+
+            int src = c == SUBSAMPLES ? color : (alpha * c / SUBSAMPLES) << 24 | rgb;
+            if (target.pixels != null)
+                target.pixels[p] = src >>> 24 == 0xFF ? src : ColorMath.blendSourceOver(target.pixels[p], src);
+            else
+                target.storage.set(p, src >>> 24 == 0xFF ? src : ColorMath.blendSourceOver(target.storage.get(p), src));
+        }
+    }
+
+    private void growEdges() {
+        int size = edgeTop.length * 2;
+        edgeTop = Arrays.copyOf(edgeTop, size);
+        edgeX = Arrays.copyOf(edgeX, size);
+        edgeStep = Arrays.copyOf(edgeStep, size);
+        edgeEnd = Arrays.copyOf(edgeEnd, size);
+        edgeDir = Arrays.copyOf(edgeDir, size);
+        edgeNext = Arrays.copyOf(edgeNext, size);
+    }
+
+    /**
+     * Gets the first sample row whose center is at or below the given Y coordinate.
+     */
+    private static int sampleIndex(float y, int samples) {
+        double s = Math.ceil(y * samples - 0.5);
+        return s < -1 ? -1 : s > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) s;
+    }
+
+    /**
+     * Gets the first pixel whose center is at or right of the given X coordinate.
+     */
+    private static int pixelIndex(float x) {
+        double p = Math.ceil(x - 0.5);
+        return p < -1 ? -1 : p > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) p;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[POLYGONFILLER] ");
+        sb.append("Edge capacity: ").append(edgeTop.length);
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
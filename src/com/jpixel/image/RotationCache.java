@@ -0,0 +1,279 @@
+package com.jpixel.image;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A cache of rotated bitmaps. Angles are quantized into a fixed amount of steps per full turn, so sprites
+ * that rotate through the same angles are rotated only once. The least recently used bitmaps are evicted
+ * when the memory budget is exceeded.
+ * <p>
+ * Source bitmaps are compared by identity. The cached bitmaps are snapshots; if a source bitmap changes,
+ * call {@link #invalidate(Bitmap)}. The cache is thread-safe. Bitmaps are rotated outside of the lock, and threads
+ * that request a rotation another thread is already creating wait for it instead of rotating again.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class RotationCache {
+    private static final double TWO_PI = Math.PI * 2.0;
+
+    private final int steps;
+    private final long budget;
+    private final LinkedHashMap<Key, Bitmap> entries = new LinkedHashMap<Key, Bitmap>(16, 0.75f, true);
+    private final HashMap<Key, CompletableFuture<Bitmap>> rotating = new HashMap<Key, CompletableFuture<Bitmap>>();
+    private long bytes;
+    private long hits, misses, evictions;
+
+    /**
+     * Initializes the cache.
+     *
+     * @param steps  Amount of distinct angles per full turn.
+     * @param budget Maximum amount of memory in bytes taken by the cached bitmaps.
+     */
+    public RotationCache(int steps, long budget) {
+        if (steps < 1) throw new IllegalArgumentException("At least one step is required");
+        if (budget < 0) throw new IllegalArgumentException("Budget cannot be negative");
+        this.steps = steps;
+        this.budget = budget;
+    }
+
+    /**
+     * Gets a rotated version of the given bitmap. The angle is rounded to the nearest step.
+     *
+     * @param b     Bitmap to rotate.
+     * @param angle Angle of rotation in radians.
+     * @return Rotated bitmap. Must not be modified, as it is shared by all users of the cache.
+     * @see Bitmap#rotate(Bitmap, double)
+     */
+    public Bitmap get(Bitmap b, double angle) {
+        return get(b, toStep(angle));
+    }
+
+    /**
+     * Rotates the given bitmap to every step up front, for bitmaps that are known to rotate constantly.
+     * Bitmaps may still be evicted later if the budget is exceeded.
+     *
+     * @param b Bitmap to rotate.
+     */
+    public void precompute(Bitmap b) {
+        for (int step = 0; step < steps; step++)
+            get(b, step);
+    }
+
+    /**
+     * Removes all rotations of the given bitmap from the cache. Rotations in progress are still returned to the
+     * threads waiting for them, but are not stored.
+     *
+     * @param b Bitmap whose rotations to remove.
+     */
+    public synchronized void invalidate(Bitmap b) {
+        for (Iterator<Map.Entry<Key, Bitmap>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Bitmap> e = it.next();
+            if (e.getKey().source == b) {
+                bytes -= sizeOf(e.getValue());
+                it.remove();
+            }
+        }
+        for (Iterator<Key> it = rotating.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().source == b)
+                it.remove();
+        }
+    }
+
+    /**
+     * Removes all bitmaps from the cache. Rotations in progress are not stored. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        rotating.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Rounds the given angle to the nearest step of this cache.
+     *
+     * @param angle Angle in radians.
+     * @return The quantized angle in radians, in range [0, 2 PI).
+     */
+    public double quantize(double angle) {
+        return toStep(angle) * TWO_PI / steps;
+    }
+
+    /**
+     * @return Amount of distinct angles per full turn.
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return Maximum amount of memory in bytes taken by the cached bitmaps.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return Amount of memory in bytes currently taken by the cached bitmaps.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Amount of cached bitmaps.
+     */
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @return Amount of requests served from the cache.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Amount of requests that needed a new rotation.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Amount of bitmaps evicted to stay within the budget.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters.
+     */
+    public synchronized void resetStatistics() {
+        hits = misses = evictions = 0;
+    }
+
+    private int toStep(double angle) {
+        long step = Math.round(angle / TWO_PI * steps) % steps;
+        return (int) (step < 0 ? step + steps : step);
+    }
+
+    private Bitmap get(Bitmap b, int step) {
+        Key key = new Key(b, step);
+        CompletableFuture<Bitmap> pending;
+        boolean owner = false;
+        synchronized (this) {
+            Bitmap result = entries.get(key);
+            if (result != null) {
+                hits++;
+                return result;
+            }
+
+            pending = rotating.get(key);
+            if (pending != null) {
+                hits++;
+            } else {
+                misses++;
+                pending = new CompletableFuture<Bitmap>();
+                rotating.put(key, pending);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            Bitmap result;
+            try {
+                result = Bitmap.rotate(b, step * TWO_PI / steps);
+            } catch (RuntimeException e) {
+                fail(key, pending, e);
+                throw e;
+            } catch (Error e) {
+                fail(key, pending, e);
+                throw e;
+            }
+            synchronized (this) {
+                // Skip storing if the source was invalidated while rotating
+                if (rotating.get(key) == pending) {
+                    rotating.remove(key);
+                    store(key, result);
+                }
+            }
+            pending.complete(result);
+            return result;
+        }
+
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private void fail(Key key, CompletableFuture<Bitmap> pending, Throwable e) {
+        synchronized (this) {
+            if (rotating.get(key) == pending)
+                rotating.remove(key);
+        }
+        pending.completeExceptionally(e);
+    }
+
+    private void store(Key key, Bitmap result) {
+        entries.put(key, result);
+        bytes += sizeOf(result);
+
+        // Evict the least recently used bitmaps, but always keep the one just created
+        Iterator<Bitmap> it = entries.values().iterator();
+        while (bytes > budget && entries.size() > 1) {
+            Bitmap eldest = it.next();
+            bytes -= sizeOf(eldest);
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(Bitmap b) {
+        return (long) b.width * b.height * 4;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("[ROTATIONCACHE] ");
+        sb.append("Steps: ").append(steps).append(" Entries: ").append(entries.size());
+        sb.append(" Bytes: ").append(bytes).append("/").append(budget);
+        sb.append(" Hits: ").append(hits).append(" Misses: ").append(misses).append(" Evictions: ").append(evictions);
+        return sb.toString();
+    }
+
+    private static final class Key {
+        final Bitmap source;
+        final int step;
+
+        Key(Bitmap source, int step) {
+            this.source = source;
+            this.step = step;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return k.source == source && k.step == step;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(source) * 31 + step;
+        }
+    }
+}
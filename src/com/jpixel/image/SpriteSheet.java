@@ -2,7 +2,8 @@ package com.jpixel.image;
 
 /**
  * A sprite sheet; a bitmap that contains smaller bitmaps (sprites) of the same
- * size.
+ * size. The sprites are views of the sheet bitmap, so they share its pixels
+ * and no pixel data is copied.
  * 
  * @author Denis Zhidkikh
  * @version 1.0
@@ -12,6 +13,8 @@ package com.jpixel.image;
 public class SpriteSheet {
 	protected int columns, rows, spriteWidth, spriteHeight;
 	protected Bitmap[][] sheet;
+	protected Bitmap sheetBitmap;
+	protected CompiledSprite[][] compiled;
 
 	/**
 	 * Initializes the sprite sheet.
@@ -24,6 +27,7 @@ public class SpriteSheet {
 	 *            Height of a single sprite.
 	 */
 	public SpriteSheet(Bitmap b, int spriteWidth, int spriteHeight) {
+		this.sheetBitmap = b;
 		this.spriteWidth = spriteWidth;
 		this.spriteHeight = spriteHeight;
 		this.columns = b.width / spriteWidth;
@@ -37,9 +41,7 @@ public class SpriteSheet {
 	private void initSpriteSheet(Bitmap b) {
 		for (int r = 0; r < rows; r++) {
 			for (int c = 0; c < columns; c++) {
-				Bitmap bb = new Bitmap(spriteWidth, spriteHeight);
-				bb.blit(b, 0, 0, c * spriteWidth, r * spriteHeight, bb.width, bb.height);
-				sheet[r][c] = bb;
+				sheet[r][c] = new BitmapView(b, c * spriteWidth, r * spriteHeight, spriteWidth, spriteHeight);
 			}
 		}
 	}
@@ -60,6 +62,46 @@ public class SpriteSheet {
 		return sheet[row][column];
 	}
 
+	/**
+	 * Get a sprite in compiled form for fast transparent blits. The sprite is
+	 * compiled the first time it is requested.
+	 * 
+	 * @param column
+	 *            Column where the sprite is located.
+	 * @param row
+	 *            Row where the sprite is located.
+	 * @return A compiled sprite at given row and column.
+	 */
+	public CompiledSprite getCompiledSprite(int column, int row) {
+		if (column < 0 || column >= columns || row < 0 || row >= rows)
+			return null;
+
+		if (compiled == null)
+			compiled = new CompiledSprite[rows][columns];
+		if (compiled[row][column] == null)
+			compiled[row][column] = new CompiledSprite(sheet[row][column]);
+
+		return compiled[row][column];
+	}
+
+	/**
+	 * Compiles all sprites of the sheet at once.
+	 * 
+	 * @see #getCompiledSprite(int, int)
+	 */
+	public void compileSprites() {
+		for (int r = 0; r < rows; r++)
+			for (int c = 0; c < columns; c++)
+				getCompiledSprite(c, r);
+	}
+
+	/**
+	 * @return The bitmap that contains all of the sprites.
+	 */
+	public Bitmap getSheetBitmap() {
+		return sheetBitmap;
+	}
+
 	/**
 	 * @return Columns in the sprite sheet.
 	 */
@@ -0,0 +1,272 @@
+package com.jpixel.image;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+
+import com.jpixel.input.KeyTypeEvent;
+
+/**
+ * A piece of text laid out with a {@link BitmapFont}. The glyphs and their positions are kept between frames, so
+ * drawing the run only blits the glyphs. The layout is updated incrementally when characters are appended or
+ * removed, and is not redone by {@link #set(CharSequence)} if the text did not change. The layout uses the metrics
+ * of the font at the time each character was added; after changing the advances, kerning or line height of the font,
+ * call {@link #relayout()}.
+ * <p>
+ * The run can be registered as the {@link KeyTypeEvent} of a keyboard to edit it by typing: printable characters
+ * are appended, backspace removes the last character and enter starts a new line. Once the arrays of the run have
+ * grown to the length of the text, typing does not allocate.
+ * <p>
+ * Keyboard events arrive on the AWT event thread while the run is usually drawn on the game thread, so all methods
+ * of the run are synchronized on the run. Code that reads several values and needs them to match, for example
+ * {@link #length()} and {@link #charAt(int)}, should synchronize on the run as well.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class TextRun implements KeyTypeEvent {
+    private final BitmapFont font;
+
+    /**
+     * Characters, their glyphs (-1 for line breaks and missing glyphs) and the pen position before each character.
+     */
+    private char[] chars;
+    private int[] glyphs, penXs, penYs;
+    private int length;
+
+    /**
+     * Position of the glyph of each character, including kerning.
+     */
+    private int[] xs;
+
+    private int penX, penY, width;
+
+    /**
+     * Initializes an empty run.
+     *
+     * @param font Font to lay out the text with.
+     */
+    public TextRun(BitmapFont font) {
+        this(font, 16);
+    }
+
+    /**
+     * Initializes an empty run.
+     *
+     * @param font     Font to lay out the text with.
+     * @param capacity Amount of characters to reserve space for.
+     */
+    public TextRun(BitmapFont font, int capacity) {
+        this.font = font;
+        capacity = Math.max(capacity, 1);
+        chars = new char[capacity];
+        glyphs = new int[capacity];
+        penXs = new int[capacity];
+        penYs = new int[capacity];
+        xs = new int[capacity];
+    }
+
+    /**
+     * Replaces the text of the run. Nothing is laid out if the text is the same as before.
+     *
+     * @param text The new text.
+     * @return True, if the text changed.
+     */
+    public synchronized boolean set(CharSequence text) {
+        int n = text.length();
+        if (n == length) {
+            int i = 0;
+            while (i < n && chars[i] == text.charAt(i))
+                i++;
+            if (i == n) return false;
+        }
+
+        clear();
+        append(text);
+        return true;
+    }
+
+    /**
+     * Appends text to the run.
+     *
+     * @param text Text to append.
+     */
+    public synchronized void append(CharSequence text) {
+        for (int i = 0, n = text.length(); i < n; i++)
+            append(text.charAt(i));
+    }
+
+    /**
+     * Appends a character to the run. '\n' starts a new line.
+     *
+     * @param c Character to append.
+     */
+    public synchronized void append(char c) {
+        if (length == chars.length) grow();
+
+        int i = length++;
+        chars[i] = c;
+        penXs[i] = penX;
+        penYs[i] = penY;
+
+        if (c == '\n') {
+            glyphs[i] = -1;
+            xs[i] = penX;
+            penX = 0;
+            penY += font.getLineHeight();
+            return;
+        }
+
+        if (i > 0 && chars[i - 1] != '\n') penX += font.getKerning(chars[i - 1], c);
+        int g = font.getGlyph(c);
+        glyphs[i] = g;
+        xs[i] = penX;
+        penX += font.getGlyphAdvance(g);
+        width = Math.max(width, penX);
+    }
+
+    /**
+     * Removes the last character of the run.
+     *
+     * @return False, if the run was empty.
+     */
+    public synchronized boolean removeLast() {
+        if (length == 0) return false;
+
+        length--;
+        penX = penXs[length];
+        penY = penYs[length];
+
+        // The removed glyph may have been the widest point of the text
+        width = 0;
+        for (int i = 0; i < length; i++)
+            if (chars[i] != '\n')
+                width = Math.max(width, xs[i] + font.getGlyphAdvance(glyphs[i]));
+        return true;
+    }
+
+    /**
+     * Lays out the text again with the current metrics of the font.
+     */
+    public synchronized void relayout() {
+        int n = length;
+        clear();
+        for (int i = 0; i < n; i++)
+            append(chars[i]);
+    }
+
+    /**
+     * Removes all characters from the run.
+     */
+    public synchronized void clear() {
+        length = penX = penY = width = 0;
+    }
+
+    /**
+     * Draws the run.
+     *
+     * @param target Bitmap to draw onto.
+     * @param x      X coordinate of the top-left corner of the text.
+     * @param y      Y coordinate of the top-left corner of the text.
+     */
+    public synchronized void draw(Bitmap target, int x, int y) {
+        for (int i = 0; i < length; i++) {
+            int g = glyphs[i];
+            if (g >= 0) target.blitAlpha(font.getCompiledGlyph(g), x + xs[i], y + penYs[i]);
+        }
+    }
+
+    /**
+     * Records the glyph blits of the run into a command buffer. All glyphs are blitted from the same sheet bitmap,
+     * so the buffer groups them with other text of the same font.
+     *
+     * @param commands Buffer to record the blits into.
+     * @param x        X coordinate of the top-left corner of the text.
+     * @param y        Y coordinate of the top-left corner of the text.
+     */
+    public synchronized void record(DrawCommandBuffer commands, int x, int y) {
+        SpriteSheet sheet = font.getSpriteSheet();
+        int sw = sheet.spriteWidth, sh = sheet.spriteHeight, columns = sheet.columns;
+
+        for (int i = 0; i < length; i++) {
+            int g = glyphs[i];
+            if (g >= 0)
+                commands.blitAlpha(sheet.sheetBitmap, x + xs[i], y + penYs[i], g % columns * sw, g / columns * sh, sw, sh);
+        }
+    }
+
+    @Override
+    public synchronized void keyTyped(KeyEvent e) {
+        char c = e.getKeyChar();
+        if (c == '\b')
+            removeLast();
+        else if (c == '\n' || c == '\r')
+            append('\n');
+        else if (c != KeyEvent.CHAR_UNDEFINED && !Character.isISOControl(c))
+            append(c);
+    }
+
+    /**
+     * Gets the amount of characters in the run.
+     *
+     * @return Length of the text.
+     */
+    public synchronized int length() {
+        return length;
+    }
+
+    /**
+     * Gets a character of the run.
+     *
+     * @param i Index of the character.
+     * @return The character.
+     */
+    public synchronized char charAt(int i) {
+        if (i < 0 || i >= length) throw new IndexOutOfBoundsException("Index: " + i + ", length: " + length);
+        return chars[i];
+    }
+
+    /**
+     * Gets the width of the longest line.
+     *
+     * @return Width of the text in pixels.
+     */
+    public synchronized int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the text.
+     *
+     * @return Height of all lines in pixels.
+     */
+    public synchronized int getHeight() {
+        return length == 0 ? 0 : penY + font.getLineHeight();
+    }
+
+    /**
+     * Gets the font of the run.
+     *
+     * @return The font.
+     */
+    public BitmapFont getFont() {
+        return font;
+    }
+
+    private void grow() {
+        int size = chars.length * 2;
+        chars = Arrays.copyOf(chars, size);
+        glyphs = Arrays.copyOf(glyphs, size);
+        penXs = Arrays.copyOf(penXs, size);
+        penYs = Arrays.copyOf(penYs, size);
+        xs = Arrays.copyOf(xs, size);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("[TEXTRUN] ");
+        sb.append("Length: ").append(length).append(" Size: ").append(width).append("x").append(getHeight());
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
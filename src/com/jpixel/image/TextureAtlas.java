@@ -0,0 +1,203 @@
+package com.jpixel.image;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+/**
+ * A single bitmap that contains many smaller bitmaps (regions), each identified by a name.
+ * The regions are views of the atlas bitmap, so they can be blitted directly. Atlases are created
+ * with {@link AtlasBuilder}.
+ * <p>
+ * The index of an atlas is stored as text; each line contains the name, X, Y, width and height of a region
+ * separated by tabs.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class TextureAtlas {
+    private static final String CHARSET = "UTF-8";
+
+    protected final Bitmap bitmap;
+    protected final Map<String, BitmapView> regions = new LinkedHashMap<String, BitmapView>();
+
+    /**
+     * Initializes an atlas with no regions.
+     *
+     * @param bitmap Bitmap that contains the regions.
+     */
+    public TextureAtlas(Bitmap bitmap) {
+        this.bitmap = bitmap;
+    }
+
+    /**
+     * Adds a named region to the atlas.
+     *
+     * @param name Name of the region.
+     * @param x    X coordinate of the region in the atlas bitmap.
+     * @param y    Y coordinate of the region in the atlas bitmap.
+     * @param w    Width of the region.
+     * @param h    Height of the region.
+     * @return A view of the region.
+     */
+    public BitmapView addRegion(String name, int x, int y, int w, int h) {
+        if (regions.containsKey(name))
+            throw new IllegalArgumentException("Region already exists: " + name);
+        BitmapView region = bitmap.subBitmap(x, y, w, h);
+        regions.put(name, region);
+        return region;
+    }
+
+    /**
+     * Gets a region.
+     *
+     * @param name Name of the region.
+     * @return A view of the region, or null if there is no region with the given name.
+     */
+    public BitmapView getRegion(String name) {
+        return regions.get(name);
+    }
+
+    /**
+     * @return Names of all regions in the order they were added.
+     */
+    public Set<String> getRegionNames() {
+        return Collections.unmodifiableSet(regions.keySet());
+    }
+
+    /**
+     * @return Amount of regions in the atlas.
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return The bitmap that contains all of the regions.
+     */
+    public Bitmap getBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Saves the atlas bitmap as PNG and the region index as text.
+     *
+     * @param imageFile File to save the bitmap to.
+     * @param indexFile File to save the index to.
+     * @throws IOException Failed to write either of the files.
+     */
+    public void save(File imageFile, File indexFile) throws IOException {
+        OutputStream image = new FileOutputStream(imageFile);
+        try {
+            OutputStream index = new FileOutputStream(indexFile);
+            try {
+                save(image, index);
+            } finally {
+                index.close();
+            }
+        } finally {
+            image.close();
+        }
+    }
+
+    /**
+     * Writes the atlas bitmap as PNG and the region index as text. The streams are not closed.
+     *
+     * @param image Stream to write the bitmap to.
+     * @param index Stream to write the index to.
+     * @throws IOException Failed to write to either of the streams.
+     */
+    public void save(OutputStream image, OutputStream index) throws IOException {
+        ImageIO.write(ImageLoader.toImage(bitmap), "png", image);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(index, CHARSET));
+        for (Map.Entry<String, BitmapView> e : regions.entrySet()) {
+            BitmapView r = e.getValue();
+            writer.write(e.getKey());
+            writer.write('\t');
+            writer.write(r.getX() + "\t" + r.getY() + "\t" + r.getWidth() + "\t" + r.getHeight());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Loads an atlas saved with {@link #save(File, File)}.
+     *
+     * @param imageFile File that contains the atlas bitmap.
+     * @param indexFile File that contains the region index.
+     * @return The loaded atlas.
+     * @throws IOException File not found, incompatible type or malformed index.
+     */
+    public static TextureAtlas load(File imageFile, File indexFile) throws IOException {
+        InputStream image = new FileInputStream(imageFile);
+        try {
+            InputStream index = new FileInputStream(indexFile);
+            try {
+                return read(image, index);
+            } finally {
+                index.close();
+            }
+        } finally {
+            image.close();
+        }
+    }
+
+    /**
+     * Reads an atlas written with {@link #save(OutputStream, OutputStream)}. The streams are not closed.
+     *
+     * @param image Stream that contains the atlas bitmap.
+     * @param index Stream that contains the region index.
+     * @return The loaded atlas.
+     * @throws IOException Incompatible type or malformed index.
+     */
+    public static TextureAtlas read(InputStream image, InputStream index) throws IOException {
+        BufferedImage img = ImageIO.read(image);
+        if (img == null) throw new IOException("Unsupported image format");
+        TextureAtlas atlas = new TextureAtlas(ImageLoader.toBitmap(img));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(index, CHARSET));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) continue;
+
+            String[] parts = line.split("\t");
+            if (parts.length != 5) throw new IOException("Malformed atlas index at line " + lineNumber);
+            try {
+                atlas.addRegion(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        Integer.parseInt(parts[3]), Integer.parseInt(parts[4]));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Malformed atlas index at line " + lineNumber, e);
+            }
+        }
+
+        return atlas;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[ATLAS] ");
+        sb.append(bitmap.getWidth()).append("x").append(bitmap.getHeight());
+        sb.append(" Regions: ").append(regions.size());
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,173 @@
+package com.jpixel.image;
+
+import java.util.Arrays;
+
+/**
+ * Draws the commands of a {@link DrawCommandBuffer} in parallel by splitting the target into square tiles.
+ * <p>
+ * Each command is put into the bin of every tile its area touches. The tiles are then drawn in parallel, each
+ * through a {@link BitmapView} of the target, so the usual fill and blit code clips every command to its tile.
+ * Within a tile, the commands are drawn in the same order as by {@link DrawCommandBuffer#execute(Bitmap)}, so the
+ * result is the same as drawing the commands on a single thread. The damage of the commands is recorded on the calling
+ * thread, on the target and, if the target is a view, on its parent.
+ * <p>
+ * The target must not be used as the source of a blit. The renderer reuses its bins and views between frames,
+ * so it should not be used by several threads at once.
+ *
+ * @author Denis Zhidkikh
+ * @version 1.0
+ * @since 17.10.2026
+ */
+public class TileRenderer {
+    /**
+     * Default width and height of a tile.
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final BandedExecutor executor;
+    private final int tileSize;
+
+    private Bitmap target;
+    private BitmapView[] tiles = new BitmapView[0];
+    private int columns, rows;
+
+    /**
+     * Positions of the commands in the plan of the command buffer, for each tile.
+     */
+    private int[][] bins = new int[0][];
+    private int[] binCounts = new int[0];
+    private long binned;
+
+    /**
+     * Initializes the renderer with the default tile size on a default {@link BandedExecutor}.
+     */
+    public TileRenderer() {
+        this(new BandedExecutor(), DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Initializes the renderer.
+     *
+     * @param executor Executor to draw the tiles on. Targets smaller than its threshold are drawn sequentially.
+     * @param tileSize Width and height of a tile.
+     */
+    public TileRenderer(BandedExecutor executor, int tileSize) {
+        if (executor == null) throw new IllegalArgumentException("Executor cannot be null");
+        if (tileSize < 1) throw new IllegalArgumentException("Tile size must be positive");
+        this.executor = executor;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Draws the commands onto the given bitmap. The commands are kept in the buffer.
+     *
+     * @param commands Commands to draw.
+     * @param target   Bitmap to draw onto.
+     */
+    public void render(final DrawCommandBuffer commands, Bitmap target) {
+        prepare(target);
+
+        int[] plan = commands.getPlan(target);
+        int count = commands.getExecutedCount();
+        Arrays.fill(binCounts, 0);
+        binned = 0;
+
+        for (int i = 0, p = 0; i < count; i++, p += DrawCommandBuffer.COMMAND_SIZE) {
+            int x0 = 0, y0 = 0, x1 = target.width, y1 = target.height;
+            if (plan[p + DrawCommandBuffer.OP] != DrawCommandBuffer.OP_CLEAR) {
+                x0 = Math.max(x0, plan[p + DrawCommandBuffer.X]);
+                y0 = Math.max(y0, plan[p + DrawCommandBuffer.Y]);
+                x1 = (int) Math.min(x1, (long) plan[p + DrawCommandBuffer.X] + plan[p + DrawCommandBuffer.W]);
+                y1 = (int) Math.min(y1, (long) plan[p + DrawCommandBuffer.Y] + plan[p + DrawCommandBuffer.H]);
+                if (x0 >= x1 || y0 >= y1) continue;
+            }
+            target.markDamaged(x0, y0, x1 - x0, y1 - y0);
+
+            for (int ty = y0 / tileSize, tyEnd = (y1 - 1) / tileSize; ty <= tyEnd; ty++)
+                for (int tx = x0 / tileSize, txEnd = (x1 - 1) / tileSize; tx <= txEnd; tx++)
+                    addToBin(ty * columns + tx, p);
+        }
+
+        executor.execute(tileSize * tileSize, tiles.length, new BandedExecutor.Band() {
+            @Override
+            public void process(int t0, int t1) {
+                for (int t = t0; t < t1; t++) {
+                    BitmapView tile = tiles[t];
+                    int[] bin = bins[t];
+                    for (int j = 0, n = binCounts[t]; j < n; j++)
+                        commands.draw(tile, bin[j], -tile.x, -tile.y);
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the width and height of a tile.
+     *
+     * @return Size of a tile.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Gets the amount of tiles the last target was split into.
+     *
+     * @return Amount of tiles.
+     */
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * Gets the total amount of commands put into the bins during the last render. A command that touches several
+     * tiles is counted once for each tile.
+     *
+     * @return Amount of binned commands.
+     */
+    public long getBinnedCount() {
+        return binned;
+    }
+
+    /**
+     * Creates the tile views when the target changes.
+     */
+    private void prepare(Bitmap target) {
+        if (target == this.target) return;
+
+        this.target = target;
+        columns = (target.width + tileSize - 1) / tileSize;
+        rows = (target.height + tileSize - 1) / tileSize;
+        tiles = new BitmapView[columns * rows];
+        for (int ty = 0; ty < rows; ty++) {
+            for (int tx = 0; tx < columns; tx++) {
+                int x = tx * tileSize, y = ty * tileSize;
+                tiles[ty * columns + tx] = new BitmapView(target, x, y, Math.min(tileSize, target.width - x), Math.min(tileSize, target.height - y), false);
+            }
+        }
+
+        if (bins.length < tiles.length) {
+            int old = bins.length;
+            bins = Arrays.copyOf(bins, tiles.length);
+            for (int i = old; i < bins.length; i++)
+                bins[i] = new int[16];
+        }
+        binCounts = new int[tiles.length];
+    }
+
+    private void addToBin(int t, int p) {
+        int n = binCounts[t];
+        if (n == bins[t].length) bins[t] = Arrays.copyOf(bins[t], n * 2);
+        bins[t][n] = p;
+        binCounts[t] = n + 1;
+        binned++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[TILERENDERER] ");
+        sb.append("Tile size: ").append(tileSize).append(" Tiles: ").append(tiles.length);
+        sb.append(" Hash: ").append(Integer.toHexString(hashCode()));
+        return sb.toString();
+    }
+}